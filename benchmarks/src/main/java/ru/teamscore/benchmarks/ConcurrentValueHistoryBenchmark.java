@@ -0,0 +1,71 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import ru.teamscore.exception.ConcurrentValueHistory;
+import ru.teamscore.exception.ValueHistory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одновременное добавление значений из нескольких потоков в одну историю:
+ * {@link ConcurrentValueHistory} против {@link ValueHistory} под общей блокировкой.
+ * Каждый поток добавляет свои {@code size} уникальных значений в историю, общую для итерации.
+ * Число потоков меняется параметром запуска {@code -t}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@Threads(4)
+public class ConcurrentValueHistoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Histories {
+        ConcurrentValueHistory concurrent;
+        ValueHistory synchronizedHistory;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            concurrent = new ConcurrentValueHistory();
+            synchronizedHistory = new ValueHistory();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Input {
+        @Param({"100000"})
+        public int size;
+
+        String[] values;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams thread) {
+            values = new String[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = "thread-" + thread.getThreadIndex() + "-value-" + i;
+            }
+        }
+    }
+
+    @Benchmark
+    public ConcurrentValueHistory concurrent(Histories histories, Input input) throws Exception {
+        ConcurrentValueHistory history = histories.concurrent;
+        for (String value : input.values) {
+            history.add(value);
+        }
+        return history;
+    }
+
+    @Benchmark
+    public ValueHistory synchronizedWrapper(Histories histories, Input input) throws Exception {
+        ValueHistory history = histories.synchronizedHistory;
+        for (String value : input.values) {
+            synchronized (history) {
+                history.add(value);
+            }
+        }
+        return history;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.iso.Finder;
+import ru.teamscore.iso.Validator;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск границ ISO-недели.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IsoWeekBenchmark {
+
+    @Param({"2020", "2024"})
+    public int year;
+
+    @Param({"1", "26", "52"})
+    public int week;
+
+    private final Finder finder = new Finder();
+    private final Validator validator = new Validator();
+
+    @Benchmark
+    public LocalDate getMonday() {
+        return finder.getMonday(year, week);
+    }
+
+    @Benchmark
+    public LocalDate getSunday() {
+        return finder.getSunday(year, week);
+    }
+
+    @Benchmark
+    public int getWeeksInYear() {
+        return finder.getWeeksInYear(year);
+    }
+
+    @Benchmark
+    public String getWeekRangeString() {
+        return validator.getWeekRangeString(year, week);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.monthinfo.MonthInfo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Геттеры {@link MonthInfo}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MonthInfoBenchmark {
+
+    @Param({"2023-02-15T10:30", "2024-12-31T23:59"})
+    public String dateTime;
+
+    private MonthInfo info;
+
+    @Setup
+    public void setUp() {
+        info = new MonthInfo(LocalDateTime.parse(dateTime));
+    }
+
+    @Benchmark
+    public String getFullMonthName() {
+        return info.getFullMonthName();
+    }
+
+    @Benchmark
+    public int getMonthNumber() {
+        return info.getMonthNumber();
+    }
+
+    @Benchmark
+    public String getFirstDayOfMonthWeekday() {
+        return info.getFirstDayOfMonthWeekday();
+    }
+
+    @Benchmark
+    public LocalDate getLastDayOfMonth() {
+        return info.getLastDayOfMonth();
+    }
+
+    @Benchmark
+    public int getDaysInMonth() {
+        return info.getDaysInMonth();
+    }
+
+    @Benchmark
+    public String getQuarterWithYear() {
+        return info.getQuarterWithYear();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.passwordvalidator.PasswordStrength;
+import ru.teamscore.passwordvalidator.PasswordValidator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пароля на типичных валидных и невалидных паролях.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PasswordValidatorBenchmark {
+
+    @Param({"ValidPass1", "short", "qwerty1234", "Pass word1", "0123456789abcdefghijABCDEFGHIJ"})
+    public String password;
+
+    @Param({"TestUser"})
+    public String userName;
+
+    @Benchmark
+    public PasswordValidator.ValidationResult validatePassword() {
+        return PasswordValidator.validatePassword(password, userName);
+    }
+
+    @Benchmark
+    public boolean isValidPassword() {
+        return PasswordValidator.isValidPassword(password, userName);
+    }
+
+    @Benchmark
+    public int strengthScore() {
+        return PasswordStrength.getDefault().score(password);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.exception.ValueHistory;
+import ru.teamscore.exception.WindowedValueHistory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Добавление и поиск значений в {@link ValueHistory}.
+ * Доля повторов во входных данных задаётся параметром {@code duplicatePercent}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueHistoryBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"0", "50"})
+    public int duplicatePercent;
+
+    private String[] input;
+    private ValueHistory filled;
+
+    @Setup
+    public void setUp() throws Exception {
+        input = new String[size];
+        int unique = size - size * duplicatePercent / 100;
+        for (int i = 0; i < size; i++) {
+            input[i] = "value-" + (i % unique);
+        }
+        filled = new ValueHistory();
+        for (int i = 0; i < unique; i++) {
+            filled.add(input[i]);
+        }
+    }
+
+    @Benchmark
+    public ValueHistory add() {
+        ValueHistory history = new ValueHistory();
+        for (String value : input) {
+            try {
+                history.add(value);
+            } catch (Exception e) {
+                // повтор — ожидаемый исход
+            }
+        }
+        return history;
+    }
+
+    @Benchmark
+    public ValueHistory addOrGetPosition() {
+        ValueHistory history = new ValueHistory();
+        for (String value : input) {
+            history.addOrGetPosition(value);
+        }
+        return history;
+    }
+
+    /**
+     * Добавление в окно из 1000 последних значений: вытеснение и пересборка индекса входят в замер.
+     */
+    @Benchmark
+    public WindowedValueHistory windowedAddOrGetPosition() {
+        WindowedValueHistory history = new WindowedValueHistory(1000);
+        for (String value : input) {
+            history.addOrGetPosition(value);
+        }
+        return history;
+    }
+
+    @Benchmark
+    public long getFirstPosition() {
+        long sum = 0;
+        for (String value : input) {
+            sum += filled.getFirstPosition(value);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public List<String> getValues() {
+        return filled.getValues();
+    }
+
+    /**
+     * Постраничное чтение через представление — без копирования всей истории.
+     */
+    @Benchmark
+    public long valuesPaged() {
+        long length = 0;
+        int total = filled.size();
+        for (int from = 0; from < total; from += 1000) {
+            for (String value : filled.values(from, Math.min(total, from + 1000))) {
+                length += value.length();
+            }
+        }
+        return length;
+    }
+}
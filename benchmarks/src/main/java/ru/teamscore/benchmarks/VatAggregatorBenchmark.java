@@ -0,0 +1,71 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.vat.VatAggregator;
+import ru.teamscore.vat.VatTotals;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Масштабирование {@link VatAggregator} по числу потоков на наборе из 16 млн чеков:
+ * массив, {@link LongBuffer} вне кучи и параллельный {@link java.util.stream.LongStream}
+ * (запускается внутри пула, поэтому использует его потоки).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class VatAggregatorBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    private long[] kopecks;
+    private LongBuffer buffer;
+    private ForkJoinPool pool;
+    private VatAggregator aggregator;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        kopecks = new long[16_000_000];
+        for (int i = 0; i < kopecks.length; i++) {
+            kopecks[i] = random.nextInt(10_000_000);
+        }
+        buffer = ByteBuffer.allocateDirect(kopecks.length * Long.BYTES).asLongBuffer().put(kopecks).flip();
+        pool = new ForkJoinPool(parallelism);
+        aggregator = new VatAggregator(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public VatTotals sumFullPrices() {
+        return aggregator.sumFullPrices(kopecks);
+    }
+
+    @Benchmark
+    public VatTotals sumPricesWithoutVAT() {
+        return aggregator.sumPricesWithoutVAT(kopecks);
+    }
+
+    @Benchmark
+    public VatTotals sumFullPricesBuffer() {
+        return aggregator.sumFullPrices(buffer);
+    }
+
+    @Benchmark
+    public VatTotals sumFullPricesStream() {
+        return pool.submit(() -> VatAggregator.sumFullPrices(Arrays.stream(kopecks).parallel())).join();
+    }
+}
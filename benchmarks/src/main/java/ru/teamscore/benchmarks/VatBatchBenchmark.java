@@ -0,0 +1,81 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.vat.InvoiceVat;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatBatch;
+import ru.teamscore.vat.VatRate;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пакетный расчёт НДС: построчные объекты {@link VAT}, скалярный и SIMD-цикл {@link VatBatch},
+ * расчёт со ставкой на каждую строку и распределение НДС счёта {@link InvoiceVat}. SIMD-ядро включается модулем
+ * {@code jdk.incubator.vector}, поэтому скалярный и векторный варианты запускаются в разных форках.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VatBatchBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private long[] kopecks;
+    private BigDecimal[] prices;
+    private VatRate[] rates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        kopecks = new long[size];
+        prices = new BigDecimal[size];
+        rates = new VatRate[size];
+        VatRate[] mix = {VatRate.STANDARD, VatRate.REDUCED, VatRate.ZERO};
+        for (int i = 0; i < size; i++) {
+            kopecks[i] = random.nextInt(10_000_000);
+            prices[i] = BigDecimal.valueOf(kopecks[i], 2);
+            rates[i] = mix[random.nextInt(mix.length)];
+        }
+    }
+
+    @Benchmark
+    public long vatObjects() {
+        long declaration = 0;
+        for (BigDecimal price : prices) {
+            declaration += VAT.fromFullPrice(price).getVATForDeclaration();
+        }
+        return declaration;
+    }
+
+    @Benchmark
+    public VatBatch batchScalar() {
+        return VatBatch.fromFullPrices(kopecks);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public VatBatch batchVector() {
+        return VatBatch.fromFullPrices(kopecks);
+    }
+
+    @Benchmark
+    public VatBatch batchMixedRates() {
+        return VatBatch.fromFullPrices(kopecks, rates);
+    }
+
+    @Benchmark
+    public VatBatch batchMixedRatesWithoutVAT() {
+        return VatBatch.fromPricesWithoutVAT(kopecks, rates);
+    }
+
+    @Benchmark
+    public InvoiceVat invoice() {
+        return InvoiceVat.fromFullPrices(kopecks);
+    }
+}
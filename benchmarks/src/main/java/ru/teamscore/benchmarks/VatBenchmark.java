@@ -0,0 +1,69 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatCache;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Расчёт НДС для одной суммы: BigDecimal, копейки и кэш.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VatBenchmark {
+
+    @Param({"0.01", "99.90", "122.45", "999999999.99"})
+    public String amount;
+
+    private BigDecimal price;
+    private long kopecks;
+    private VatCache cache;
+
+    @Setup
+    public void setUp() {
+        price = new BigDecimal(amount);
+        kopecks = price.movePointRight(2).longValueExact();
+        cache = new VatCache(1024);
+    }
+
+    @Benchmark
+    public VAT fromFullPrice() {
+        return VAT.fromFullPrice(price);
+    }
+
+    @Benchmark
+    public VAT fromPriceWithoutVAT() {
+        return VAT.fromPriceWithoutVAT(price);
+    }
+
+    @Benchmark
+    public VAT fromFullPriceDouble() {
+        return VAT.fromFullPrice(price.doubleValue());
+    }
+
+    @Benchmark
+    public long computeFromFullKopecks() {
+        return VAT.computeFromFullKopecks(kopecks);
+    }
+
+    @Benchmark
+    public long computeFromKopecksWithoutVAT() {
+        return VAT.computeFromKopecksWithoutVAT(kopecks);
+    }
+
+    @Benchmark
+    public VAT cachedFromFullPrice() {
+        return cache.fromFullPrice(price);
+    }
+
+    @Benchmark
+    public VAT cachedFromFullKopecks() {
+        return cache.fromFullKopecks(kopecks);
+    }
+}
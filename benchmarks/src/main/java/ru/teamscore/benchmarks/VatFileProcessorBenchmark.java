@@ -0,0 +1,82 @@
+package ru.teamscore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.teamscore.vat.VatFileProcessor;
+import ru.teamscore.vat.VatTotals;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Потоковая обработка файлов сумм {@link VatFileProcessor}: двоичный файл и CSV.
+ * Файлы создаются один раз во временном каталоге; выходной файл перезаписывается в каждом вызове.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VatFileProcessorBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    private Path directory;
+    private Path binary;
+    private Path csv;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        directory = Files.createTempDirectory("vat-benchmark");
+        binary = directory.resolve("prices.bin");
+        csv = directory.resolve("prices.csv");
+        output = directory.resolve("result.bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(binary)));
+             BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("id;price\n");
+            for (int i = 0; i < size; i++) {
+                long kopecks = random.nextInt(10_000_000);
+                out.writeLong(kopecks);
+                writer.write(i + ";" + kopecks / 100 + "." + String.format("%02d", kopecks % 100) + "\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public VatTotals processFullPrices() throws IOException {
+        return VatFileProcessor.processFullPrices(binary, output);
+    }
+
+    @Benchmark
+    public VatTotals processPricesWithoutVAT() throws IOException {
+        return VatFileProcessor.processPricesWithoutVAT(binary, output);
+    }
+
+    @Benchmark
+    public VatTotals processFullPricesCsv() throws IOException {
+        return VatFileProcessor.processFullPricesCsv(csv, 1, ';', true, output);
+    }
+
+    @Benchmark
+    public VatTotals processPricesWithoutVATCsv() throws IOException {
+        return VatFileProcessor.processPricesWithoutVATCsv(csv, 1, ';', true, output);
+    }
+}
@@ -7,22 +7,29 @@ package ru.teamscore.exception;
 
 
 class AlreadyExistsException extends Exception {
-    private String value;
-    private int position;
+    private final String value;
+    private final int position;
 
     /**
      * Создаёт экземпляр исключения с указанием дублирующегося значения
      * и позиции его первого появления.
+     * Стек вызовов не заполняется, а сообщение строится только при обращении к нему:
+     * повтор — ожидаемый исход, и создание исключения должно быть дешёвым.
      *
      * @param value    дублирующееся значение
      * @param position позиция (нумерация с 1), на которой значение было впервые обнаружено
      */
     public AlreadyExistsException(String value, int position) {
-        super("Дублирующееся значение: '" + value + "' (первый раз было введено на позиции " + position + ")");
+        super(null, null, false, false);
         this.value = value;
         this.position = position;
     }
 
+    @Override
+    public String getMessage() {
+        return "Дублирующееся значение: '" + value + "' (первый раз было введено на позиции " + position + ")";
+    }
+
     public String getValue() {
         return value;
     }
@@ -0,0 +1,132 @@
+package ru.teamscore.exception;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Потокобезопасный вариант {@link ValueHistory} для нескольких одновременно добавляющих потоков.
+ * <p>
+ * Индекс значений — {@link ConcurrentHashMap}, позиции выдаёт атомарный счётчик внутри
+ * {@code computeIfAbsent}, поэтому позиции идут подряд без пропусков, а блокируется
+ * только ячейка таблицы с этим значением. Значения хранятся по позициям в блоках,
+ * так что порядок ввода общий для всех потоков.
+ */
+public class ConcurrentValueHistory {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final ConcurrentHashMap<String, Integer> firstOccurrences = new ConcurrentHashMap<>();
+    private final AtomicInteger counter = new AtomicInteger();
+    // блоки значений по позициям; массив блоков заменяется целиком при росте
+    private volatile AtomicReferenceArray<String>[] chunks = newChunks(16);
+
+    /**
+     * Добавляет значение в историю.
+     *
+     * @param value значение для добавления
+     * @throws AlreadyExistsException если значение уже было добавлено ранее (в том числе другим потоком)
+     */
+    public void add(String value) throws AlreadyExistsException {
+        int position = addOrGetPosition(value);
+        if (position < 0) {
+            throw new AlreadyExistsException(value.trim(), -position);
+        }
+    }
+
+    /**
+     * Добавляет значение в историю без исключения при повторе.
+     *
+     * @param value значение для добавления
+     * @return позиция добавленного значения (нумерация с 1) или, если значение уже было добавлено
+     * (в том числе другим потоком), позиция его первого вхождения со знаком минус
+     */
+    public int addOrGetPosition(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        String key = value.trim();
+        Integer existing = firstOccurrences.get(key);
+        if (existing != null) {
+            return -existing;
+        }
+        boolean[] added = new boolean[1];
+        int position = firstOccurrences.computeIfAbsent(key, k -> {
+            added[0] = true;
+            return store(k);
+        });
+        return added[0] ? position : -position;
+    }
+
+    /**
+     * Выдаёт следующую позицию и записывает значение в её ячейку.
+     * Вызывается под блокировкой ячейки индекса, поэтому для каждого значения — один раз.
+     */
+    private int store(String value) {
+        int position = counter.incrementAndGet();
+        int index = position - 1;
+        chunk(index >>> CHUNK_BITS).set(index & (CHUNK_SIZE - 1), value);
+        return position;
+    }
+
+    private AtomicReferenceArray<String> chunk(int number) {
+        AtomicReferenceArray<String>[] current = chunks;
+        if (number < current.length && current[number] != null) {
+            return current[number];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (number >= current.length) {
+                current = Arrays.copyOf(current, Math.max(number + 1, current.length * 2));
+            }
+            if (current[number] == null) {
+                current[number] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            }
+            chunks = current;
+            return current[number];
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AtomicReferenceArray<String>[] newChunks(int length) {
+        return (AtomicReferenceArray<String>[]) new AtomicReferenceArray[length];
+    }
+
+    /**
+     * Возвращает все добавленные значения в порядке ввода.
+     * Значения, добавление которых ещё не завершилось, и все следующие за ними не попадают в список.
+     */
+    public List<String> getValues() {
+        int size = counter.get();
+        AtomicReferenceArray<String>[] current = chunks;
+        List<String> values = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            int number = index >>> CHUNK_BITS;
+            AtomicReferenceArray<String> chunk = number < current.length ? current[number] : null;
+            String value = chunk == null ? null : chunk.get(index & (CHUNK_SIZE - 1));
+            if (value == null) {
+                break;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * Возвращает позицию первого вхождения значения (нумерация с 1).
+     * Возвращает -1, если значение не найдено.
+     */
+    public int getFirstPosition(String value) {
+        return firstOccurrences.getOrDefault(value.trim(), -1);
+    }
+
+    /**
+     * Возвращает количество добавленных значений.
+     */
+    public int size() {
+        return firstOccurrences.size();
+    }
+}
@@ -0,0 +1,700 @@
+package ru.teamscore.exception;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32C;
+
+/**
+ * Вариант {@link ValueHistory}, переживающий перезапуск процесса.
+ * <p>
+ * Каждое принятое значение дописывается в журнал записью {@code [длина][CRC32C][байты UTF-8]}
+ * и считается добавленным только после {@link FileChannel#force}. Синхронизация групповая:
+ * первый ожидающий поток записывает и синхронизирует все накопленные записи за один вызов,
+ * остальные ждут его результата, поэтому число {@code fsync} растёт с числом волн, а не значений.
+ * <p>
+ * Раз в {@code snapshotInterval} значений (или по {@link #snapshot()}) журнал начинается заново,
+ * а все значения записываются в снимок — временный файл, который атомарно переименовывается.
+ * При открытии читается последний снимок (таблица сразу создаётся нужного размера)
+ * и проигрывается только хвост журнала после него. Недописанная или повреждённая последняя
+ * запись (сбой посреди записи) отбрасывается, файл обрезается по последней целой записи.
+ * <p>
+ * Значения хранятся в UTF-8, поэтому принимаются только строки без непарных суррогатов
+ * (иначе после восстановления значение изменилось бы) длиной не больше 2^28 байт в UTF-8.
+ * Класс потокобезопасен.
+ */
+public class DurableValueHistory implements AutoCloseable {
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final int LOG_MAGIC = 0x56484C47;       // "VHLG"
+    private static final int SNAPSHOT_MAGIC = 0x5648534E;  // "VHSN"
+    private static final int HEADER_BYTES = 16;            // магия, резерв, номер первого значения - 1
+    private static final int RECORD_HEADER_BYTES = 8;      // длина, CRC32C
+    private static final int MAX_VALUE_BYTES = 1 << 28;
+    private static final String LOG_PREFIX = "values-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 1 << 20;
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final UnaryOperator<FileChannel> logChannels;
+    private final ValueHistory history;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+
+    // всё ниже — под lock
+    private FileChannel log;
+    private byte[] pending = new byte[4096];   // записи, ещё не переданные в журнал
+    private int pendingLength;
+    private byte[] spare = new byte[4096];     // буфер, который пишет ведущий поток
+    private boolean flushing;                  // есть ведущий поток, пишущий журнал
+    private int durableSize;                   // значения с позициями до этой синхронизированы
+    private int snapshotSize;                  // значений в последнем снимке
+    private IOException failure;
+    private boolean closed;
+
+    private DurableValueHistory(Path directory, int snapshotInterval, UnaryOperator<FileChannel> logChannels,
+                                ValueHistory history, FileChannel log, int snapshotSize) {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.logChannels = logChannels;
+        this.history = history;
+        this.log = log;
+        this.snapshotSize = snapshotSize;
+        this.durableSize = history.size();
+    }
+
+    /**
+     * Открывает историю в каталоге (создаёт его, если нужно) со снимком каждые 2^20 значений.
+     */
+    public static DurableValueHistory open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Открывает историю в каталоге и восстанавливает ранее добавленные значения.
+     *
+     * @param directory        каталог журналов и снимков
+     * @param snapshotInterval через сколько новых значений автоматически делать снимок (> 0)
+     * @throws IOException если файлы не читаются или журнал повреждён не в последней записи
+     */
+    public static DurableValueHistory open(Path directory, int snapshotInterval) throws IOException {
+        return open(directory, snapshotInterval, UnaryOperator.identity());
+    }
+
+    /**
+     * Открывает историю, пропуская каналы журналов через {@code logChannels}.
+     * Позволяет тестам подменить запись и синхронизацию журнала.
+     */
+    static DurableValueHistory open(Path directory, int snapshotInterval,
+                                    UnaryOperator<FileChannel> logChannels) throws IOException {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Интервал снимков должен быть положительным: " + snapshotInterval);
+        }
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> snapshots = list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        TreeMap<Long, Path> logs = list(directory, LOG_PREFIX, LOG_SUFFIX);
+
+        // последний целый снимок; снимок удаляется только после появления более нового
+        ValueHistory history = null;
+        long base = 0;
+        for (Long count : snapshots.descendingKeySet()) {
+            history = readSnapshot(snapshots.get(count), count);
+            if (history != null) {
+                base = count;
+                break;
+            }
+        }
+        if (history == null) {
+            history = new ValueHistory();
+        }
+
+        // журналы с начала снимка по порядку; последний может быть недописан
+        List<Long> tail = new ArrayList<>(logs.tailMap(base, true).keySet());
+        if (!tail.isEmpty() && tail.get(0) != base) {
+            throw new IOException("Нет журнала после снимка из " + base + " значений в " + directory);
+        }
+        for (int i = 0; i < tail.size(); i++) {
+            long logBase = tail.get(i);
+            if (logBase != history.size()) {
+                throw new IOException("Пропуск в журнале: ожидалось " + history.size()
+                        + " значений перед " + logs.get(logBase));
+            }
+            replay(logs.get(logBase), history, i == tail.size() - 1);
+        }
+
+        FileChannel log = tail.isEmpty()
+                ? createLog(directory, history.size())
+                : FileChannel.open(logs.get(tail.get(tail.size() - 1)), StandardOpenOption.WRITE);
+        log.position(log.size());
+        DurableValueHistory result = new DurableValueHistory(
+                directory, snapshotInterval, logChannels, history, logChannels.apply(log), (int) base);
+        result.deleteBefore(base);
+        return result;
+    }
+
+    /**
+     * Добавляет значение в историю и дожидается его записи на диск.
+     *
+     * @param value значение для добавления
+     * @throws AlreadyExistsException если значение уже было добавлено ранее (в том числе до перезапуска)
+     * @throws UncheckedIOException   если журнал не удалось записать
+     */
+    public void add(String value) throws AlreadyExistsException {
+        int position = addOrGetPosition(value);
+        if (position < 0) {
+            throw new AlreadyExistsException(value.trim(), -position);
+        }
+    }
+
+    /**
+     * Добавляет значение в историю без исключения при повторе и дожидается его записи на диск.
+     *
+     * @param value значение для добавления
+     * @return позиция добавленного значения (нумерация с 1) или, если значение уже было добавлено,
+     * позиция его первого вхождения со знаком минус (в обоих случаях — после записи значения на диск)
+     * @throws IllegalArgumentException если значение null, содержит непарный суррогат
+     *                                  или длиннее 2^28 байт в UTF-8
+     * @throws UncheckedIOException     если журнал не удалось записать или не удался очередной снимок
+     *                                  (во втором случае значение уже сохранено в журнале)
+     */
+    public int addOrGetPosition(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        String key = value.trim();
+        checkStorable(key);
+        int position;
+        boolean snapshotDue;
+        lock.lock();
+        try {
+            checkWritable();
+            position = history.addOrGetPosition(key);
+            if (position < 0) {
+                // первое вхождение может быть ещё не на диске — повтор подтверждается только после него
+                awaitDurable(-position);
+                return position;
+            }
+            append(key.getBytes(StandardCharsets.UTF_8));
+            awaitDurable(position);
+            snapshotDue = position - snapshotSize >= snapshotInterval;
+        } finally {
+            lock.unlock();
+        }
+        // снимок делает один из добавляющих потоков, остальные не ждут
+        if (snapshotDue && snapshotLock.tryLock()) {
+            try {
+                takeSnapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                snapshotLock.unlock();
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Возвращает все добавленные значения в порядке ввода.
+     */
+    public List<String> getValues() {
+        lock.lock();
+        try {
+            return history.getValues();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает позицию первого вхождения значения (нумерация с 1).
+     * Возвращает -1, если значение не найдено.
+     */
+    public int getFirstPosition(String value) {
+        lock.lock();
+        try {
+            return history.getFirstPosition(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество добавленных значений.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return history.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Записывает снимок всех значений и начинает новый журнал, чтобы при следующем открытии
+     * не проигрывать уже накопленные записи. Добавление значений на время записи снимка не блокируется.
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            takeSnapshot();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Дописывает накопленные записи и закрывает журнал. Файлы остаются в каталоге.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            closed = true;
+            try {
+                if (failure == null && pendingLength > 0) {
+                    writePending();
+                }
+            } finally {
+                log.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---- запись журнала ----
+
+    /**
+     * Проверяет, что значение без изменений переживёт запись в UTF-8 и чтение записи журнала.
+     */
+    private static void checkStorable(String key) {
+        long bytes = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 3;
+            } else if (Character.isHighSurrogate(c) && i + 1 < key.length()
+                    && Character.isLowSurrogate(key.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                throw new IllegalArgumentException("Значение содержит непарный суррогат в позиции " + i);
+            }
+        }
+        if (bytes > MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("Значение длиннее " + MAX_VALUE_BYTES + " байт в UTF-8: " + bytes);
+        }
+    }
+
+    private void checkWritable() {
+        if (closed) {
+            throw new IllegalStateException("История закрыта");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Журнал не записан, история доступна только для чтения", failure);
+        }
+    }
+
+    private void append(byte[] bytes) {
+        int required = pendingLength + RECORD_HEADER_BYTES + bytes.length;
+        if (required > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(required, pending.length * 2));
+        }
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+        putInt(pending, pendingLength, bytes.length);
+        putInt(pending, pendingLength + 4, (int) crc.getValue());
+        System.arraycopy(bytes, 0, pending, pendingLength + RECORD_HEADER_BYTES, bytes.length);
+        pendingLength = required;
+    }
+
+    /**
+     * Ждёт, пока значение с данной позицией окажется на диске. Если журнал никто не пишет,
+     * текущий поток сам становится ведущим и записывает все накопленные записи.
+     * Вызывается под {@code lock}.
+     */
+    private void awaitDurable(int position) {
+        while (durableSize < position) {
+            if (failure != null) {
+                throw new UncheckedIOException("Журнал не записан", failure);
+            }
+            if (flushing) {
+                flushed.awaitUninterruptibly();
+                continue;
+            }
+            flushing = true;
+            byte[] batch = pending;
+            int length = pendingLength;
+            int target = history.size();
+            pending = spare;
+            pendingLength = 0;
+            FileChannel channel = log;
+            lock.unlock();
+            IOException error = null;
+            try {
+                write(channel, batch, length);
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                lock.lock();
+                spare = batch;
+                flushing = false;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSize = target;
+                }
+                flushed.signalAll();
+            }
+        }
+    }
+
+    /**
+     * Записывает накопленные записи, не отпуская {@code lock}. Вызывается, когда ведущего потока нет.
+     * После неудачной записи не пишет ничего: значения, о которых добавлявшим сообщили ошибку,
+     * не должны попасть на диск позже.
+     */
+    private void writePending() throws IOException {
+        if (failure != null) {
+            throw new IOException("Журнал не записан, история доступна только для чтения", failure);
+        }
+        try {
+            write(log, pending, pendingLength);
+            log.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        pendingLength = 0;
+        durableSize = history.size();
+    }
+
+    private static void write(FileChannel channel, byte[] bytes, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // ---- снимки ----
+
+    /**
+     * Начинает новый журнал и записывает снимок значений до него. Вызывается под {@code snapshotLock}.
+     */
+    private void takeSnapshot() throws IOException {
+        List<String> values;
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            // ведущий поток мог не записать журнал, пока снимок ждал: такие значения не сохраняются
+            checkWritable();
+            if (history.size() == snapshotSize) {
+                return;
+            }
+            if (pendingLength > 0) {
+                writePending();
+            }
+            // все значения до size уже в старом журнале, новые пойдут в новый
+            FileChannel next = logChannels.apply(createLog(directory, history.size()));
+            log.close();
+            log = next;
+            values = history.getValues();
+        } finally {
+            lock.unlock();
+        }
+
+        writeSnapshot(values);
+        lock.lock();
+        try {
+            snapshotSize = Math.max(snapshotSize, values.size());
+        } finally {
+            lock.unlock();
+        }
+        deleteBefore(values.size());
+    }
+
+    /**
+     * Формат снимка: заголовок {@code [магия][резерв][число значений]}, значения {@code [длина][байты UTF-8]},
+     * в конце CRC32C всех предыдущих байтов.
+     */
+    private void writeSnapshot(List<String> values) throws IOException {
+        Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, values.size(), SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C checksum = new CRC32C();
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            byte[] header = new byte[HEADER_BYTES];
+            putInt(header, 0, SNAPSHOT_MAGIC);
+            putLong(header, 8, values.size());
+            checksum.update(header);
+            out.write(header);
+            byte[] length = new byte[4];
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                putInt(length, 0, bytes.length);
+                checksum.update(length);
+                checksum.update(bytes);
+                out.write(length);
+                out.write(bytes);
+            }
+            putInt(length, 0, (int) checksum.getValue());
+            out.write(length);
+            out.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(directory);
+    }
+
+    /**
+     * Читает снимок. Возвращает null, если файл не целый (например, не дописан до сбоя).
+     */
+    private static ValueHistory readSnapshot(Path file, long expectedCount) throws IOException {
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES + 4) {
+                return null;
+            }
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, arena);
+            long end = fileSize - 4;
+            if (data.get(INT, 0) != SNAPSHOT_MAGIC || data.get(LONG, 8) != expectedCount
+                    || expectedCount > Integer.MAX_VALUE
+                    || (int) checksum(data, end) != data.get(INT, end)) {
+                return null;
+            }
+            ValueHistory history = new ValueHistory((int) expectedCount);
+            byte[] buffer = new byte[256];
+            long offset = HEADER_BYTES;
+            for (long i = 0; i < expectedCount; i++) {
+                int length = offset + 4 <= end ? data.get(INT, offset) : -1;
+                if (length < 0 || length > end - offset - 4) {
+                    return null;
+                }
+                if (length > buffer.length) {
+                    buffer = new byte[Math.max(length, buffer.length * 2)];
+                }
+                MemorySegment.copy(data, ValueLayout.JAVA_BYTE, offset + 4, buffer, 0, length);
+                offset += 4 + length;
+                if (history.addOrGetPosition(new String(buffer, 0, length, StandardCharsets.UTF_8)) < 0) {
+                    return null;
+                }
+            }
+            return offset == end ? history : null;
+        }
+    }
+
+    private static long checksum(MemorySegment data, long length) {
+        CRC32C checksum = new CRC32C();
+        for (long offset = 0; offset < length; offset += Integer.MAX_VALUE) {
+            checksum.update(data.asSlice(offset, Math.min(Integer.MAX_VALUE, length - offset)).asByteBuffer());
+        }
+        return checksum.getValue();
+    }
+
+    // ---- восстановление журнала ----
+
+    /**
+     * Проигрывает журнал. В последнем журнале недописанный или повреждённый хвост обрезается,
+     * в остальных он означает потерю данных.
+     */
+    private static void replay(Path file, ValueHistory history, boolean last) throws IOException {
+        long validEnd;
+        long fileSize;
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                validEnd = 0;
+            } else {
+                MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, arena);
+                if (data.get(INT, 0) != LOG_MAGIC || data.get(LONG, 8) != history.size()) {
+                    throw new IOException("Неверный заголовок журнала " + file);
+                }
+                validEnd = replayRecords(data, history);
+            }
+        }
+        if (validEnd == fileSize) {
+            return;
+        }
+        if (!last) {
+            throw new IOException("Журнал " + file + " повреждён на смещении " + validEnd);
+        }
+        if (validEnd < HEADER_BYTES) {
+            // сбой при создании журнала: заголовок пишется заново
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(0);
+                writeLogHeader(channel, history.size());
+            }
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Добавляет значения из записей журнала и возвращает смещение конца последней целой записи.
+     */
+    private static long replayRecords(MemorySegment data, ValueHistory history) throws IOException {
+        CRC32C checksum = new CRC32C();
+        byte[] buffer = new byte[256];
+        long size = data.byteSize();
+        long offset = HEADER_BYTES;
+        while (offset + RECORD_HEADER_BYTES <= size) {
+            int length = data.get(INT, offset);
+            if (length < 0 || length > MAX_VALUE_BYTES || length > size - offset - RECORD_HEADER_BYTES) {
+                break;
+            }
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            MemorySegment.copy(data, ValueLayout.JAVA_BYTE, offset + RECORD_HEADER_BYTES, buffer, 0, length);
+            checksum.reset();
+            checksum.update(buffer, 0, length);
+            if ((int) checksum.getValue() != data.get(INT, offset + 4)) {
+                break;
+            }
+            int position = history.addOrGetPosition(new String(buffer, 0, length, StandardCharsets.UTF_8));
+            if (position < 0) {
+                throw new IOException("Повтор значения в журнале на смещении " + offset);
+            }
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    // ---- файлы ----
+
+    private static FileChannel createLog(Path directory, long base) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(fileName(LOG_PREFIX, base, LOG_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            writeLogHeader(channel, base);
+            syncDirectory(directory);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private static void writeLogHeader(FileChannel channel, long base) throws IOException {
+        byte[] header = new byte[HEADER_BYTES];
+        putInt(header, 0, LOG_MAGIC);
+        putLong(header, 8, base);
+        write(channel, header, header.length);
+        channel.force(true);
+    }
+
+    /**
+     * Удаляет снимки и журналы, полностью покрытые снимком из {@code count} значений.
+     */
+    private void deleteBefore(long count) throws IOException {
+        for (Path file : list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(count, false).values()) {
+            Files.deleteIfExists(file);
+        }
+        for (Path file : list(directory, LOG_PREFIX, LOG_SUFFIX).headMap(count, false).values()) {
+            Files.deleteIfExists(file);
+        }
+        // недописанные снимки (снимки пишутся по одному, поэтому чужих среди них нет)
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*.tmp")) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Файлы вида {@code <prefix><число значений до файла><suffix>} по возрастанию числа.
+     */
+    private static TreeMap<Long, Path> list(Path directory, String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), file);
+                } catch (NumberFormatException e) {
+                    // чужой файл с похожим именем
+                }
+            }
+        }
+        return files;
+    }
+
+    private static String fileName(String prefix, long count, String suffix) {
+        return String.format("%s%019d%s", prefix, count, suffix);
+    }
+
+    /**
+     * Синхронизирует каталог, чтобы созданные и переименованные файлы пережили сбой питания.
+     * Не на всех системах каталог можно открыть — там это не требуется.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows не открывает каталоги как файлы
+        }
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        putInt(bytes, offset, (int) (value >>> 32));
+        putInt(bytes, offset + 4, (int) value);
+    }
+}
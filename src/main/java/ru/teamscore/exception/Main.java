@@ -1,17 +1,75 @@
 package ru.teamscore.exception;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+/**
+ * Ввод значений в {@link ValueHistory} с консоли.
+ * <p>
+ * Без аргументов работает в диалоге. С аргументом {@code --stream [--quiet] [файл]} (в любом порядке) читает все строки
+ * из файла (или стандартного ввода) без приглашений: отдельный поток читает строки пачками,
+ * основной добавляет их в историю и пишет результаты через буфер, а итог (число принятых значений,
+ * повторов и скорость) выводит в stderr. С {@code --quiet} выводится только итог.
+ * Файл и стандартный ввод читаются в UTF-8 независимо от кодировки платформы.
+ * Неизвестные параметры, а также файл или {@code --quiet} без {@code --stream} отклоняются.
+ */
 public class Main {
-    public static void main(String[] args) {
+    private static final int BATCH_SIZE = 1 << 13;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+        boolean stream = false;
+        boolean quiet = false;
+        String file = null;
+        for (String arg : args) {
+            switch (arg) {
+                case "--stream" -> stream = true;
+                case "--quiet" -> quiet = true;
+                default -> {
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Неизвестный параметр: " + arg);
+                    }
+                    if (file != null) {
+                        throw new IllegalArgumentException("Лишний аргумент: " + arg);
+                    }
+                    file = arg;
+                }
+            }
+        }
+        if (!stream) {
+            if (args.length > 0) {
+                throw new IllegalArgumentException("Файл и --quiet допустимы только вместе с --stream");
+            }
+            runInteractive();
+            return;
+        }
+        BufferedReader input = file != null
+                ? Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try (input) {
+            runStreaming(input, quiet);
+        }
+    }
+
+    private static void runInteractive() {
         Scanner scanner = new Scanner(System.in);
         ValueHistory history = new ValueHistory();
 
         System.out.println("Введите значения (для выхода введите 'exit'):");
 
         while (true) {
-            System.out.print("Введите значение #" + (history.getValues().size() + 1) + ": ");
+            System.out.print("Введите значение #" + (history.size() + 1) + ": ");
             String input = scanner.nextLine();
 
             if (input == null) {
@@ -40,9 +98,129 @@ public class Main {
 
         // Вывод всех введённых значений
         System.out.println("\nВсе уникальные введённые значения:");
-        List<String> values = history.getValues();
+        List<String> values = history.values();
         for (int i = 0; i < values.size(); i++) {
             System.out.println((i + 1) + ". " + values.get(i));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Добавляет в историю все строки из {@code input}. Для каждой строки пишет {@code <позиция>. <значение>}
+     * или, для повтора, {@code Повтор: '<значение>' (позиция <n>)}.
+     */
+    private static void runStreaming(BufferedReader input, boolean quiet) throws IOException {
+        // пока основной поток обрабатывает пачку, читатель готовит следующую
+        BlockingQueue<Batch> batches = new ArrayBlockingQueue<>(2);
+        Thread reader = new Thread(() -> readBatches(input, batches), "value-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        ValueHistory history = new ValueHistory();
+        long lines = 0;
+        long duplicates = 0;
+        long start = System.nanoTime();
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), BUFFER_SIZE);
+        while (true) {
+            Batch batch = take(batches);
+            if (batch.error != null) {
+                rethrow(batch.error);
+            }
+            if (batch.count == 0) {
+                break;
+            }
+            for (int i = 0; i < batch.count; i++) {
+                String value = batch.lines[i];
+                int position = history.addOrGetPosition(value);
+                if (position < 0) {
+                    duplicates++;
+                }
+                if (!quiet) {
+                    writeResult(output, value.trim(), position);
+                }
+            }
+            lines += batch.count;
+        }
+        output.flush();
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        System.err.printf("Строк: %d, принято: %d, повторов: %d, время: %.3f с, %.0f строк/с%n",
+                lines, history.size(), duplicates, seconds, lines / seconds);
+    }
+
+    private static void writeResult(Writer output, String value, int position) throws IOException {
+        if (position > 0) {
+            output.write(Integer.toString(position));
+            output.write(". ");
+            output.write(value);
+        } else {
+            output.write("Повтор: '");
+            output.write(value);
+            output.write("' (позиция ");
+            output.write(Integer.toString(-position));
+            output.write(')');
+        }
+        output.write(System.lineSeparator());
+    }
+
+    private static void readBatches(BufferedReader input, BlockingQueue<Batch> batches) {
+        try {
+            while (true) {
+                String[] lines = new String[BATCH_SIZE];
+                int count = 0;
+                String line;
+                while (count < lines.length && (line = input.readLine()) != null) {
+                    lines[count++] = line;
+                }
+                put(batches, new Batch(lines, count, null));
+                if (count < lines.length) {
+                    if (count > 0) {
+                        put(batches, new Batch(lines, 0, null));
+                    }
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            // иначе основной поток ждал бы следующую пачку вечно
+            put(batches, new Batch(null, 0, e));
+        }
+    }
+
+    /**
+     * Бросает ошибку потока чтения в основном потоке, сохраняя её тип, где это возможно.
+     */
+    private static void rethrow(Throwable error) throws IOException {
+        if (error instanceof IOException e) {
+            throw e;
+        }
+        if (error instanceof RuntimeException e) {
+            throw e;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        throw new IllegalStateException("Ошибка чтения", error);
+    }
+
+    private static Batch take(BlockingQueue<Batch> batches) {
+        try {
+            return batches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Чтение прервано", e);
+        }
+    }
+
+    private static void put(BlockingQueue<Batch> batches, Batch batch) {
+        try {
+            batches.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Пачка прочитанных строк; {@code count == 0} — конец ввода.
+     */
+    private record Batch(String[] lines, int count, Throwable error) {
+    }
+}
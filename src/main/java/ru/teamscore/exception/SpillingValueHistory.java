@@ -0,0 +1,549 @@
+package ru.teamscore.exception;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Вариант {@link ValueHistory} для историй, не помещающихся в кучу.
+ * Семантика {@link #add} и {@link #getFirstPosition} та же, но значения хранятся в трёх уровнях:
+ * <ul>
+ *     <li>ограниченный набор последних значений в куче (хеш-таблица на массивах);</li>
+ *     <li>фильтр Блума по всем значениям вне кучи — отвечает «точно нет» без обращения к диску;</li>
+ *     <li>отсортированные по хешу сегменты на диске, отображённые в память, — в них значение ищется
+ *     двоичным поиском только при положительном ответе фильтра.</li>
+ * </ul>
+ * Когда набор в куче заполняется, он целиком сбрасывается в новый сегмент. Соседние сегменты
+ * близкого размера сливаются, поэтому сегментов не больше логарифма от числа значений.
+ * <p>
+ * Файлы сегментов создаются в указанном каталоге и удаляются при {@link #close()}.
+ * Класс, как и {@link ValueHistory}, не потокобезопасен.
+ */
+public class SpillingValueHistory implements AutoCloseable {
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final int BLOCK_BYTES = 64;   // блок фильтра — одна строка кэша
+
+    private final Path directory;
+    private final int hotCapacity;
+    private final Arena filterArena = Arena.ofShared();
+    private final MemorySegment filter;
+    private final long filterBlocks;
+    private final int probes;
+    private final HotSet hot;
+    private final List<Segment> segments = new ArrayList<>();
+    private int counter = 1;
+    private byte[] keyBytes = new byte[64];  // ключ в UTF-8 для поиска в сегментах
+    private int keyLength;
+    private boolean closed;
+
+    /**
+     * @param directory         каталог для файлов сегментов
+     * @param hotCapacity       сколько значений держать в куче до сброса на диск (> 0)
+     * @param expectedValues    ожидаемое общее число значений (для размера фильтра)
+     * @param falsePositiveRate доля новых значений, для которых придётся искать на диске (от 0 до 1)
+     */
+    public SpillingValueHistory(Path directory, int hotCapacity, long expectedValues, double falsePositiveRate) {
+        if (hotCapacity <= 0 || hotCapacity > (1 << 29)) {
+            throw new IllegalArgumentException("Размер набора в памяти должен быть от 1 до 2^29: " + hotCapacity);
+        }
+        if (expectedValues <= 0) {
+            throw new IllegalArgumentException("Ожидаемое число значений должно быть положительным: " + expectedValues);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Доля ложных срабатываний должна быть от 0 до 1: " + falsePositiveRate);
+        }
+        this.directory = directory;
+        this.hotCapacity = hotCapacity;
+        this.hot = new HotSet(hotCapacity);
+
+        // m = -n ln p / ln²2 бит, k = m / n * ln 2 проб
+        double bitsPerValue = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.probes = (int) Math.max(1, Math.min(16, Math.round(bitsPerValue * Math.log(2))));
+        this.filterBlocks = Math.max(1, (long) Math.ceil(expectedValues * bitsPerValue / (BLOCK_BYTES * 8)));
+        this.filter = filterArena.allocate(filterBlocks * BLOCK_BYTES, BLOCK_BYTES);
+    }
+
+    /**
+     * Добавляет значение в историю.
+     *
+     * @param value значение для добавления
+     * @throws AlreadyExistsException если значение уже было добавлено ранее
+     */
+    public void add(String value) throws AlreadyExistsException {
+        int position = addOrGetPosition(value);
+        if (position < 0) {
+            throw new AlreadyExistsException(value.trim(), -position);
+        }
+    }
+
+    /**
+     * Добавляет значение в историю без исключения при повторе.
+     *
+     * @return позиция добавленного значения (нумерация с 1) или, если значение уже было добавлено,
+     * позиция его первого вхождения со знаком минус
+     * @throws UncheckedIOException если не удалось записать сегмент на диск
+     */
+    public int addOrGetPosition(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        ensureOpen();
+        String key = value.trim();
+        long hash = hash(key);
+        int existing = find(key, hash);
+        if (existing > 0) {
+            return -existing;
+        }
+        if (counter == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Превышено максимальное число значений: " + Integer.MAX_VALUE);
+        }
+        if (hot.size() == hotCapacity) {
+            spill();
+        }
+        int position = counter++;
+        hot.add(key, hash, position);
+        addToFilter(hash);
+        return position;
+    }
+
+    /**
+     * Возвращает позицию первого вхождения значения (нумерация с 1).
+     * Возвращает -1, если значение не найдено.
+     */
+    public int getFirstPosition(String value) {
+        ensureOpen();
+        String key = value.trim();
+        int position = find(key, hash(key));
+        return position > 0 ? position : -1;
+    }
+
+    /**
+     * Возвращает количество добавленных значений.
+     */
+    public int size() {
+        return counter - 1;
+    }
+
+    /** Количество сегментов на диске */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    private int find(String key, long hash) {
+        int position = hot.find(key, hash);
+        if (position > 0 || segments.isEmpty() || !mightContain(hash)) {
+            return position;
+        }
+        encodeKey(key);
+        MemorySegment bytes = MemorySegment.ofArray(keyBytes).asSlice(0, keyLength);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            position = segments.get(i).find(hash, bytes);
+            if (position > 0) {
+                return position;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Кодирует ключ в UTF-8 в буфер экземпляра, как {@link String#getBytes} (непарный суррогат — '?').
+     */
+    private void encodeKey(String key) {
+        int max = key.length() * 3;
+        if (keyBytes.length < max) {
+            keyBytes = new byte[Math.max(max, keyBytes.length * 2)];
+        }
+        byte[] out = keyBytes;
+        int n = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                out[n++] = (byte) c;
+            } else if (c < 0x800) {
+                out[n++] = (byte) (0xC0 | (c >> 6));
+                out[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < key.length()
+                    && Character.isLowSurrogate(key.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, key.charAt(++i));
+                out[n++] = (byte) (0xF0 | (cp >> 18));
+                out[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                out[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                out[n++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[n++] = '?';
+            } else {
+                out[n++] = (byte) (0xE0 | (c >> 12));
+                out[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        keyLength = n;
+    }
+
+    private void addToFilter(long hash) {
+        long block = Math.unsignedMultiplyHigh(hash, filterBlocks) * BLOCK_BYTES;
+        long bits = mix(hash);
+        long step = mix(bits) | 1L;
+        for (int probe = 0; probe < probes; probe++) {
+            int bit = (int) ((bits + probe * step) >>> 55); // 0..511
+            long word = block + (bit >>> 6) * Long.BYTES;
+            filter.set(LONG, word, filter.get(LONG, word) | (1L << (bit & 63)));
+        }
+    }
+
+    private boolean mightContain(long hash) {
+        long block = Math.unsignedMultiplyHigh(hash, filterBlocks) * BLOCK_BYTES;
+        long bits = mix(hash);
+        long step = mix(bits) | 1L;
+        for (int probe = 0; probe < probes; probe++) {
+            int bit = (int) ((bits + probe * step) >>> 55);
+            if ((filter.get(LONG, block + (bit >>> 6) * Long.BYTES) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сбрасывает набор из кучи в новый сегмент и сливает сегменты близкого размера.
+     */
+    private void spill() {
+        try {
+            hot.sortByHash();
+            Segment segment;
+            try {
+                segment = Segment.write(newSegmentPath(), hot);
+            } catch (IOException | RuntimeException e) {
+                // записи переставлены сортировкой — без новой таблицы поиск в куче их бы не находил
+                hot.reindex();
+                throw e;
+            }
+            segments.add(segment);
+            hot.clear();
+            while (segments.size() > 1) {
+                Segment last = segments.get(segments.size() - 1);
+                Segment previous = segments.get(segments.size() - 2);
+                if (previous.count > 2 * last.count) {
+                    break;
+                }
+                Segment merged = Segment.merge(newSegmentPath(), previous, last);
+                segments.remove(segments.size() - 1);
+                segments.set(segments.size() - 1, merged);
+                previous.delete();
+                last.delete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать сегмент истории в " + directory, e);
+        }
+    }
+
+    /**
+     * Создаёт пустой файл сегмента с уникальным именем (в каталоге могут работать другие экземпляры
+     * или остаться файлы после сбоя).
+     */
+    private Path newSegmentPath() throws IOException {
+        return Files.createTempFile(directory, "value-history-", ".seg");
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("История закрыта");
+        }
+    }
+
+    /**
+     * Освобождает память фильтра и удаляет файлы сегментов.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        filterArena.close();
+        IOException failure = null;
+        for (Segment segment : segments) {
+            try {
+                segment.delete();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        segments.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 64-битный хеш строки по символам (FNV-1a с финальным перемешиванием).
+     */
+    static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Значения в куче: хеш-таблица с открытой адресацией над параллельными массивами записей.
+     */
+    private static final class HotSet {
+        private final String[] keys;
+        private final long[] hashes;
+        private final int[] positions;
+        private final int[] table;   // номер записи + 1, 0 — пусто
+        private int size;
+
+        HotSet(int capacity) {
+            keys = new String[capacity];
+            hashes = new long[capacity];
+            positions = new int[capacity];
+            table = new int[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int find(String key, long hash) {
+            int mask = table.length - 1;
+            for (int slot = (int) hash & mask, entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+                if (hashes[entry - 1] == hash && keys[entry - 1].equals(key)) {
+                    return positions[entry - 1];
+                }
+            }
+            return 0;
+        }
+
+        void add(String key, long hash, int position) {
+            int mask = table.length - 1;
+            int slot = (int) hash & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[size] = key;
+            hashes[size] = hash;
+            positions[size] = position;
+            table[slot] = ++size;
+        }
+
+        /**
+         * Упорядочивает записи по хешу (таблица поиска после этого недействительна до {@link #clear()}
+         * или {@link #reindex()}).
+         */
+        void sortByHash() {
+            sort(0, size - 1);
+        }
+
+        private void sort(int left, int right) {
+            while (right - left > 16) {
+                long pivot = hashes[(left + right) >>> 1];
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (Long.compareUnsigned(hashes[i], pivot) < 0) i++;
+                    while (Long.compareUnsigned(hashes[j], pivot) > 0) j--;
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // рекурсия по меньшей части, цикл по большей — глубина стека O(log n)
+                if (j - left < right - i) {
+                    sort(left, j);
+                    left = i;
+                } else {
+                    sort(i, right);
+                    right = j;
+                }
+            }
+            for (int i = left + 1; i <= right; i++) {
+                for (int j = i; j > left && Long.compareUnsigned(hashes[j - 1], hashes[j]) > 0; j--) {
+                    swap(j - 1, j);
+                }
+            }
+        }
+
+        private void swap(int a, int b) {
+            String key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            long hash = hashes[a];
+            hashes[a] = hashes[b];
+            hashes[b] = hash;
+            int position = positions[a];
+            positions[a] = positions[b];
+            positions[b] = position;
+        }
+
+        /**
+         * Заново заполняет таблицу поиска по текущему порядку записей.
+         */
+        void reindex() {
+            Arrays.fill(table, 0);
+            int mask = table.length - 1;
+            for (int entry = 0; entry < size; entry++) {
+                int slot = (int) hashes[entry] & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = entry + 1;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(table, 0);
+            size = 0;
+        }
+    }
+
+    /**
+     * Сегмент на диске: заголовок (число записей), записи фиксированного размера,
+     * упорядоченные по хешу (хеш, позиция, смещение и длина строки), затем строки в UTF-8.
+     */
+    private static final class Segment {
+        private static final int HEADER_BYTES = 16;
+        private static final int RECORD_BYTES = 24;
+
+        final Path path;
+        final long count;
+        private final Arena arena;
+        private final MemorySegment data;
+        private final long stringsOffset;
+
+        private Segment(Path path, Arena arena, MemorySegment data) {
+            this.path = path;
+            this.arena = arena;
+            this.data = data;
+            this.count = data.get(LONG, 8);
+            this.stringsOffset = HEADER_BYTES + count * RECORD_BYTES;
+        }
+
+        static Segment write(Path path, HotSet hot) throws IOException {
+            byte[][] encoded = new byte[hot.size][];
+            long stringBytes = 0;
+            for (int i = 0; i < hot.size; i++) {
+                encoded[i] = hot.keys[i].getBytes(StandardCharsets.UTF_8);
+                stringBytes += encoded[i].length;
+            }
+            long count = hot.size;
+            return create(path, count, stringBytes, (out, records, strings) -> {
+                long offset = 0;
+                for (int i = 0; i < count; i++) {
+                    long record = HEADER_BYTES + i * (long) RECORD_BYTES;
+                    out.set(LONG, record, hot.hashes[i]);
+                    out.set(INT, record + 8, hot.positions[i]);
+                    out.set(INT, record + 12, encoded[i].length);
+                    out.set(LONG, record + 16, offset);
+                    MemorySegment.copy(encoded[i], 0, out, ValueLayout.JAVA_BYTE, strings + offset, encoded[i].length);
+                    offset += encoded[i].length;
+                }
+            });
+        }
+
+        static Segment merge(Path path, Segment a, Segment b) throws IOException {
+            long count = a.count + b.count;
+            long stringBytes = a.data.byteSize() - a.stringsOffset + b.data.byteSize() - b.stringsOffset;
+            return create(path, count, stringBytes, (out, records, strings) -> {
+                long i = 0;
+                long j = 0;
+                long offset = 0;
+                for (long k = 0; k < count; k++) {
+                    Segment source;
+                    long index;
+                    if (j >= b.count || (i < a.count && Long.compareUnsigned(a.hash(i), b.hash(j)) <= 0)) {
+                        source = a;
+                        index = i++;
+                    } else {
+                        source = b;
+                        index = j++;
+                    }
+                    long from = HEADER_BYTES + index * RECORD_BYTES;
+                    long to = HEADER_BYTES + k * RECORD_BYTES;
+                    int length = source.data.get(INT, from + 12);
+                    MemorySegment.copy(source.data, from, out, to, 16);
+                    out.set(LONG, to + 16, offset);
+                    MemorySegment.copy(source.data, source.stringsOffset + source.data.get(LONG, from + 16),
+                            out, strings + offset, length);
+                    offset += length;
+                }
+            });
+        }
+
+        @FunctionalInterface
+        private interface Writer {
+            void write(MemorySegment out, long records, long strings);
+        }
+
+        private static Segment create(Path path, long count, long stringBytes, Writer writer) throws IOException {
+            long size = HEADER_BYTES + count * RECORD_BYTES + stringBytes;
+            Arena arena = Arena.ofShared();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MemorySegment out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+                out.set(LONG, 8, count);
+                writer.write(out, HEADER_BYTES, HEADER_BYTES + count * RECORD_BYTES);
+                return new Segment(path, arena, out);
+            } catch (IOException | RuntimeException e) {
+                arena.close();
+                Files.deleteIfExists(path);
+                throw e;
+            }
+        }
+
+        long hash(long index) {
+            return data.get(LONG, HEADER_BYTES + index * RECORD_BYTES);
+        }
+
+        /**
+         * Ищет строку двоичным поиском по хешу; при совпадении хешей сравниваются байты.
+         */
+        int find(long hash, MemorySegment key) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (Long.compareUnsigned(hash(middle), hash) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (long index = low; index < count && hash(index) == hash; index++) {
+                long record = HEADER_BYTES + index * RECORD_BYTES;
+                int length = data.get(INT, record + 12);
+                if (length == key.byteSize()) {
+                    long start = stringsOffset + data.get(LONG, record + 16);
+                    if (MemorySegment.mismatch(data, start, start + length, key, 0, length) < 0) {
+                        return data.get(INT, record + 8);
+                    }
+                }
+            }
+            return 0;
+        }
+
+        void delete() throws IOException {
+            arena.close();
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -6,10 +6,40 @@ import java.util.*;
  * Класс для отслеживания ввода значений и предотвращения дубликатов.
  * В случае попытки добавить уже существующее значение,
  * выбрасывает {@link AlreadyExistsException}.
+ * <p>
+ * Значения хранятся в массиве в порядке ввода (индекс = позиция - 1), а для поиска используется
+ * хеш-таблица с открытой адресацией из двух параллельных массивов int — хешей и позиций.
+ * На значение приходится около 20 байт сверх самой строки вместо ~60 у {@code LinkedHashMap}
+ * с упакованными {@code Integer}.
  */
 public class ValueHistory {
-    private final Map<String, Integer> firstOccurrences = new LinkedHashMap<>();
-    private int counter = 1;
+    private static final int INITIAL_CAPACITY = 16;   // размер таблицы, степень двойки
+    private static final int MAX_LOAD_PERCENT = 75;
+
+    private String[] values = new String[INITIAL_CAPACITY / 2];
+    private int size;
+    private int[] slotHashes = new int[INITIAL_CAPACITY];
+    private int[] slotPositions = new int[INITIAL_CAPACITY];  // 0 — пустая ячейка
+    private int threshold = INITIAL_CAPACITY * MAX_LOAD_PERCENT / 100;
+    private final List<String> view = new View();
+
+    public ValueHistory() {
+    }
+
+    /**
+     * Создаёт историю с таблицей, рассчитанной на {@code expectedSize} значений без перестроений
+     * (например, при восстановлении из снимка известного размера).
+     */
+    ValueHistory(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+        while ((long) capacity * MAX_LOAD_PERCENT / 100 < expectedSize) {
+            capacity *= 2;
+        }
+        values = new String[Math.max(INITIAL_CAPACITY / 2, expectedSize)];
+        slotHashes = new int[capacity];
+        slotPositions = new int[capacity];
+        threshold = (int) ((long) capacity * MAX_LOAD_PERCENT / 100);
+    }
 
     /**
      * Добавляет значение в историю.
@@ -18,22 +48,73 @@ public class ValueHistory {
      * @throws AlreadyExistsException если значение уже было добавлено ранее
      */
     public void add(String value) throws AlreadyExistsException {
+        int position = addOrGetPosition(value);
+        if (position < 0) {
+            throw new AlreadyExistsException(value.trim(), -position);
+        }
+    }
+
+    /**
+     * Добавляет значение в историю без исключения при повторе.
+     *
+     * @param value значение для добавления
+     * @return позиция добавленного значения (нумерация с 1) или, если значение уже было добавлено,
+     * позиция его первого вхождения со знаком минус
+     */
+    public int addOrGetPosition(String value) {
         if (value == null) {
             throw new IllegalArgumentException("Значение не может быть null");
         }
         String key = value.trim();
-        if (firstOccurrences.containsKey(key)) {
-            throw new AlreadyExistsException(key, firstOccurrences.get(key));
+        int hash = hash(key);
+        int mask = slotPositions.length - 1;
+        int slot = hash & mask;
+        for (int position; (position = slotPositions[slot]) != 0; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] == hash && values[position - 1].equals(key)) {
+                return -position;
+            }
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+        }
+        values[size++] = key;
+        slotHashes[slot] = hash;
+        slotPositions[slot] = size;
+        if (size > threshold) {
+            rehash();
         }
-        firstOccurrences.put(key, counter);
-        counter++;
+        return size;
     }
 
     /**
-     * Возвращает все добавленные значения в порядке ввода.
+     * Возвращает копию всех добавленных значений в порядке ввода.
+     * Для чтения без копирования — {@link #values()}.
      */
     public List<String> getValues() {
-        return new ArrayList<>(firstOccurrences.keySet());
+        return new ArrayList<>(Arrays.asList(values).subList(0, size));
+    }
+
+    /**
+     * Возвращает неизменяемое представление значений в порядке ввода без копирования:
+     * элемент с индексом {@code i} — значение с позицией {@code i + 1}. Представление отражает
+     * значения, добавленные после его получения, поэтому новые записи можно читать с последнего
+     * прочитанного индекса.
+     */
+    public List<String> values() {
+        return view;
+    }
+
+    /**
+     * Возвращает неизменяемое представление значений с индексами от {@code from} включительно
+     * до {@code to} не включительно (позиции с {@code from + 1} по {@code to}) без копирования.
+     *
+     * @throws IndexOutOfBoundsException если {@code from < 0}, {@code to > size()} или {@code from > to}
+     */
+    public List<String> values(int from, int to) {
+        // AbstractList.subList бросает IllegalArgumentException при from > to
+        Objects.checkFromToIndex(from, to, size);
+        return view.subList(from, to);
     }
 
     /**
@@ -41,6 +122,73 @@ public class ValueHistory {
      * Возвращает -1, если значение не найдено.
      */
     public int getFirstPosition(String value) {
-        return firstOccurrences.getOrDefault(value.trim(), -1);
+        String key = value.trim();
+        int hash = hash(key);
+        int mask = slotPositions.length - 1;
+        for (int slot = hash & mask, position; (position = slotPositions[slot]) != 0; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] == hash && values[position - 1].equals(key)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает количество добавленных значений.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удваивает таблицу и раскладывает в неё позиции по сохранённым хешам (строки не перечитываются).
+     */
+    private void rehash() {
+        int[] oldHashes = slotHashes;
+        int[] oldPositions = slotPositions;
+        int capacity = oldPositions.length * 2;
+        if (capacity <= 0) {
+            throw new IllegalStateException("Слишком много значений: " + size);
+        }
+        int mask = capacity - 1;
+        slotHashes = new int[capacity];
+        slotPositions = new int[capacity];
+        for (int i = 0; i < oldPositions.length; i++) {
+            if (oldPositions[i] != 0) {
+                int slot = oldHashes[i] & mask;
+                while (slotPositions[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slotHashes[slot] = oldHashes[i];
+                slotPositions[slot] = oldPositions[i];
+            }
+        }
+        threshold = (int) ((long) capacity * MAX_LOAD_PERCENT / 100);
+    }
+
+    /**
+     * Значения только добавляются и не меняются, поэтому представление читает текущий массив
+     * и не следит за изменениями: подсписок остаётся верным и после новых добавлений.
+     */
+    private final class View extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, size);
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Перемешивает хеш строки, чтобы соседние значения (например, "value-1", "value-2")
+     * не попадали в соседние ячейки при линейном пробировании.
+     */
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+package ru.teamscore.exception;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Вариант {@link ValueHistory}, который помнит только последние значения: не больше {@code maxValues}
+ * и, если задан срок, не старше {@code maxAge}. Повтором считается только значение, первое вхождение
+ * которого ещё в окне; повтор не продлевает срок первого вхождения. Позиции нумеруются с 1 сквозным
+ * счётчиком, как в {@link ValueHistory}, и после вытеснения не переиспользуются.
+ * <p>
+ * Исключение — исчерпание нумерации: когда счётчик доходит до {@link Integer#MAX_VALUE}, позиции окна
+ * сдвигаются к началу на одно и то же число. Порядок и разности позиций сохраняются, но выданные
+ * до сдвига позиции перестают совпадать с новыми. Без сдвига окно перестало бы принимать значения.
+ * <p>
+ * Значения окна лежат в кольцевом буфере по позициям, индекс — хеш-таблица с открытой адресацией
+ * фиксированного размера. Вытесняемое значение помечается в таблице «удалённым», а таблица
+ * пересобирается на месте, когда удалённых становится много, поэтому добавление — амортизированно O(1),
+ * а память не растёт. Устаревшие значения вытесняются при каждом обращении.
+ * <p>
+ * Класс, как и {@link ValueHistory}, не потокобезопасен.
+ */
+public class WindowedValueHistory {
+    private static final int MAX_LOAD_PERCENT = 75;
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    private final int maxValues;
+    private final long maxAgeNanos;   // Long.MAX_VALUE — без срока
+    private final LongSupplier clock;
+
+    // кольцо: значение с позицией p лежит в ячейке (p - 1) % maxValues
+    private final String[] values;
+    private final int[] hashes;
+    private final long[] addedAt;
+    private int oldest;           // позиция самого старого значения в окне
+    private int next;             // позиция следующего значения
+
+    private final int[] slotHashes;
+    private final int[] slotPositions;  // EMPTY, DELETED или позиция
+    private final int threshold;
+    private int usedSlots;              // занятые и удалённые ячейки
+
+    /**
+     * Окно только по количеству значений.
+     */
+    public WindowedValueHistory(int maxValues) {
+        this(maxValues, null, System::nanoTime);
+    }
+
+    /**
+     * @param maxValues сколько последних значений помнить (> 0)
+     * @param maxAge    сколько помнить значение после первого добавления, null — без ограничения
+     */
+    public WindowedValueHistory(int maxValues, Duration maxAge) {
+        this(maxValues, maxAge, System::nanoTime);
+    }
+
+    /**
+     * @param maxValues сколько последних значений помнить (> 0)
+     * @param maxAge    сколько помнить значение после первого добавления, null — без ограничения
+     * @param clock     источник времени в наносекундах (как {@link System#nanoTime()})
+     */
+    public WindowedValueHistory(int maxValues, Duration maxAge, LongSupplier clock) {
+        this(maxValues, maxAge, clock, 1);
+    }
+
+    /**
+     * Позволяет тестам начать нумерацию с {@code firstPosition} (> 0), не добавляя 2^31 значений.
+     */
+    WindowedValueHistory(int maxValues, Duration maxAge, LongSupplier clock, int firstPosition) {
+        if (maxValues <= 0 || maxValues > (1 << 28)) {
+            throw new IllegalArgumentException("Размер окна должен быть от 1 до 2^28: " + maxValues);
+        }
+        if (maxAge != null && (maxAge.isNegative() || maxAge.isZero())) {
+            throw new IllegalArgumentException("Срок хранения должен быть положительным: " + maxAge);
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Источник времени не может быть null");
+        }
+        this.maxValues = maxValues;
+        this.oldest = firstPosition;
+        this.next = firstPosition;
+        this.maxAgeNanos = maxAge == null ? Long.MAX_VALUE : saturatedNanos(maxAge);
+        this.clock = clock;
+        this.values = new String[maxValues];
+        this.hashes = new int[maxValues];
+        this.addedAt = maxAge == null ? null : new long[maxValues];
+
+        // живых значений не больше половины таблицы, так что пересборка нужна не чаще чем через
+        // четверть таблицы вставок
+        int capacity = Integer.highestOneBit(maxValues) * 4;
+        this.slotHashes = new int[capacity];
+        this.slotPositions = new int[capacity];
+        this.threshold = (int) ((long) capacity * MAX_LOAD_PERCENT / 100);
+    }
+
+    /**
+     * Добавляет значение в историю.
+     *
+     * @param value значение для добавления
+     * @throws AlreadyExistsException если значение уже было добавлено и ещё не вытеснено из окна
+     */
+    public void add(String value) throws AlreadyExistsException {
+        int position = addOrGetPosition(value);
+        if (position < 0) {
+            throw new AlreadyExistsException(value.trim(), -position);
+        }
+    }
+
+    /**
+     * Добавляет значение в историю без исключения при повторе.
+     *
+     * @param value значение для добавления
+     * @return позиция добавленного значения (нумерация с 1) или, если значение уже есть в окне,
+     * позиция его первого вхождения со знаком минус; после {@link Integer#MAX_VALUE} позиции
+     * окна сдвигаются к началу нумерации
+     */
+    public int addOrGetPosition(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        String key = value.trim();
+        int hash = hash(key);
+        long now = addedAt == null ? 0 : clock.getAsLong();
+        evictExpired(now);
+        int existing = find(key, hash);
+        if (existing > 0) {
+            return -existing;
+        }
+
+        if (next - oldest == maxValues) {
+            evictOldest();
+        }
+        if (usedSlots >= threshold) {
+            rebuild();
+        }
+        if (next == Integer.MAX_VALUE) {
+            rebase();
+        }
+        int position = next++;
+        int index = (position - 1) % maxValues;
+        values[index] = key;
+        hashes[index] = hash;
+        if (addedAt != null) {
+            addedAt[index] = now;
+        }
+        insert(hash, position);
+        return position;
+    }
+
+    /**
+     * Возвращает значения окна в порядке ввода.
+     */
+    public List<String> getValues() {
+        evictExpired();
+        List<String> result = new ArrayList<>(next - oldest);
+        for (int position = oldest; position < next; position++) {
+            result.add(values[(position - 1) % maxValues]);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает позицию первого вхождения значения (нумерация с 1).
+     * Возвращает -1, если значения нет в окне.
+     */
+    public int getFirstPosition(String value) {
+        evictExpired();
+        String key = value.trim();
+        int position = find(key, hash(key));
+        return position > 0 ? position : -1;
+    }
+
+    /**
+     * Возвращает количество значений в окне.
+     */
+    public int size() {
+        evictExpired();
+        return next - oldest;
+    }
+
+    private void evictExpired() {
+        if (addedAt != null) {
+            evictExpired(clock.getAsLong());
+        }
+    }
+
+    private void evictExpired(long now) {
+        if (addedAt == null) {
+            return;
+        }
+        // сравнение разностей, как положено для nanoTime
+        while (oldest < next && now - addedAt[(oldest - 1) % maxValues] >= maxAgeNanos) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Удаляет самое старое значение окна: его ячейка в таблице помечается удалённой.
+     */
+    private void evictOldest() {
+        int index = (oldest - 1) % maxValues;
+        int mask = slotPositions.length - 1;
+        int slot = hashes[index] & mask;
+        while (slotPositions[slot] != oldest) {
+            slot = (slot + 1) & mask;
+        }
+        slotPositions[slot] = DELETED;
+        values[index] = null;
+        oldest++;
+    }
+
+    private int find(String key, int hash) {
+        int mask = slotPositions.length - 1;
+        for (int slot = hash & mask, position; (position = slotPositions[slot]) != EMPTY; slot = (slot + 1) & mask) {
+            if (position != DELETED && slotHashes[slot] == hash
+                    && values[(position - 1) % maxValues].equals(key)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Записывает позицию в первую удалённую или пустую ячейку цепочки.
+     */
+    private void insert(int hash, int position) {
+        int mask = slotPositions.length - 1;
+        int slot = hash & mask;
+        while (slotPositions[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (slotPositions[slot] == EMPTY) {
+            usedSlots++;
+        }
+        slotHashes[slot] = hash;
+        slotPositions[slot] = position;
+    }
+
+    /**
+     * Пересобирает таблицу того же размера без удалённых ячеек по хешам из кольца.
+     */
+    private void rebuild() {
+        Arrays.fill(slotPositions, EMPTY);
+        usedSlots = 0;
+        for (int position = oldest; position < next; position++) {
+            insert(hashes[(position - 1) % maxValues], position);
+        }
+    }
+
+    /**
+     * Сдвигает позиции окна к началу нумерации. Сдвиг кратен {@code maxValues}, поэтому ячейки
+     * кольца не меняются, а самое старое значение получает позицию не больше {@code maxValues}.
+     */
+    private void rebase() {
+        int shift = (oldest - 1) / maxValues * maxValues;
+        for (int slot = 0; slot < slotPositions.length; slot++) {
+            if (slotPositions[slot] > 0) {
+                slotPositions[slot] -= shift;
+            }
+        }
+        oldest -= shift;
+        next -= shift;
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Перемешивание хеша — как в {@link ValueHistory}.
+     */
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
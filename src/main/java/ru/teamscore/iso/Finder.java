@@ -1,9 +1,29 @@
 package ru.teamscore.iso;
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.temporal.IsoFields;
 
 public class Finder {
 
+    /** Годы, для которых начало недель заранее вычислено (диапазон {@link Validator#validate}). */
+    private static final int FIRST_TABLE_YEAR = 1;
+    private static final int LAST_TABLE_YEAR = 9999;
+
+    /**
+     * Номер дня от 1970-01-01 для понедельника 1-й ISO-недели каждого года с 1 по 10000
+     * (10000 — чтобы число недель 9999 года считалось так же, как остальных): около 40 КБ.
+     * Число недель в году — разность соседних значений, делённая на 7.
+     */
+    private static final int[] WEEK_ONE_MONDAYS = new int[LAST_TABLE_YEAR - FIRST_TABLE_YEAR + 2];
+
+    static {
+        long january4 = LocalDate.of(FIRST_TABLE_YEAR, 1, 4).toEpochDay();
+        for (int i = 0; i < WEEK_ONE_MONDAYS.length; i++) {
+            WEEK_ONE_MONDAYS[i] = (int) mondayOnOrBefore(january4);
+            // от 4 января до 4 января следующего года — 366 дней, если текущий год високосный
+            january4 += isLeap(FIRST_TABLE_YEAR + i) ? 366 : 365;
+        }
+    }
+
     /**
      * Возвращает дату понедельника указанной ISO-недели.
      *
@@ -11,17 +31,14 @@ public class Finder {
      * @param week  номер недели по ISO (1–53)
      * @return дата понедельника
      * @throws IllegalArgumentException если неделя не существует в данном году по ISO
+     *                                  или выходит за диапазон {@link LocalDate}
      */
     public LocalDate getMonday(int year, int week) {
         // Проверяем корректность номера недели для данного года
         validateWeekNumber(year, week);
-
         try {
-            // Используем WeekFields.ISO, но проще через LocalDate + IsoFields
-            return LocalDate.of(year, 1, 4)  // гарантированно находится в 1-й ISO-неделе
-                    .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week)
-                    .with(java.time.DayOfWeek.MONDAY);
-        } catch (Exception e) {
+            return LocalDate.ofEpochDay(weekOneMonday(year) + 7L * (week - 1));
+        } catch (DateTimeException e) {
             throw new IllegalArgumentException("Invalid ISO week: " + week + " for year " + year, e);
         }
     }
@@ -35,7 +52,7 @@ public class Finder {
         }
 
         // Определяем максимальное количество недель в данном году по ISO
-        int maxWeeksInYear = getMaxWeeksInYear(year);
+        int maxWeeksInYear = getWeeksInYear(year);
 
         if (week > maxWeeksInYear) {
             throw new IllegalArgumentException("Invalid ISO week: " + week + " for year " + year +
@@ -44,27 +61,23 @@ public class Finder {
     }
 
     /**
-     * Возвращает максимальное количество недель в году по стандарту ISO 8601.
+     * Возвращает количество недель в году по стандарту ISO 8601 (52 или 53).
      * Год имеет 53 недели, если:
      * 1. Он начинается в четверг (обычный год) ИЛИ
      * 2. Он начинается в среду и является високосным
+     * — то есть между понедельниками 1-й недели этого и следующего года 371 день.
+     *
+     * @throws IllegalArgumentException если год вне диапазона {@link LocalDate}
      */
-    private int getMaxWeeksInYear(int year) {
-        // 4 января всегда находится в 1-й неделе года
-        LocalDate date = LocalDate.of(year, 1, 4);
-
-        // День недели 1 января
-        java.time.DayOfWeek firstDayOfYear = LocalDate.of(year, 1, 1).getDayOfWeek();
-
-        // Проверяем условия для 53 недель
-        boolean isLeapYear = java.time.Year.of(year).isLeap();
-
-        if (firstDayOfYear == java.time.DayOfWeek.THURSDAY ||
-                (firstDayOfYear == java.time.DayOfWeek.WEDNESDAY && isLeapYear)) {
-            return 53;
-        } else {
-            return 52;
+    public int getWeeksInYear(int year) {
+        int index = year - FIRST_TABLE_YEAR;
+        if (index >= 0 && index < WEEK_ONE_MONDAYS.length - 1) {
+            return (WEEK_ONE_MONDAYS[index + 1] - WEEK_ONE_MONDAYS[index]) / 7;
         }
+        // 4 января следующего года — через длину текущего: следующий год может быть вне диапазона
+        long january4 = january4(year);
+        long nextJanuary4 = january4 + (isLeap(year) ? 366 : 365);
+        return (int) ((mondayOnOrBefore(nextJanuary4) - mondayOnOrBefore(january4)) / 7);
     }
 
     /**
@@ -73,8 +86,44 @@ public class Finder {
      * @param year  год по ISO
      * @param week  номер недели по ISO
      * @return дата воскресенья
+     * @throws IllegalArgumentException если неделя не существует в данном году по ISO
+     *                                  или выходит за диапазон {@link LocalDate}
      */
     public LocalDate getSunday(int year, int week) {
-        return getMonday(year, week).plusDays(6);
+        LocalDate monday = getMonday(year, week);
+        try {
+            return monday.plusDays(6);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid ISO week: " + week + " for year " + year, e);
+        }
+    }
+
+    /**
+     * Номер дня от 1970-01-01 для понедельника 1-й ISO-недели: из таблицы для лет 1–10000,
+     * для остальных — от 4 января (оно всегда в 1-й неделе).
+     */
+    private static long weekOneMonday(int year) {
+        int index = year - FIRST_TABLE_YEAR;
+        if (index >= 0 && index < WEEK_ONE_MONDAYS.length) {
+            return WEEK_ONE_MONDAYS[index];
+        }
+        return mondayOnOrBefore(january4(year));
+    }
+
+    private static long january4(int year) {
+        try {
+            return LocalDate.of(year, 1, 4).toEpochDay();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Year is out of range: " + year, e);
+        }
+    }
+
+    private static long mondayOnOrBefore(long epochDay) {
+        // 1970-01-01 — четверг, то есть день 3 при нумерации с понедельника с 0
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
     }
-}
\ No newline at end of file
+}
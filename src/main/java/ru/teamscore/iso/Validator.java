@@ -21,11 +21,9 @@ public class Validator {
             throw new IllegalArgumentException("ISO week must be between 1 and 53");
         }
 
-        // Проверим, что такая неделя существует: попытаемся вычислить понедельник
-        try {
-            finder.getMonday(year, week);
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Week " + week + " does not exist in ISO year " + year, e);
+        // Проверим, что такая неделя существует в данном ISO-году
+        if (week > finder.getWeeksInYear(year)) {
+            throw new IllegalArgumentException("Week " + week + " does not exist in ISO year " + year);
         }
     }
 
@@ -36,7 +34,7 @@ public class Validator {
     public String getWeekRangeString(int year, int week) {
         validate(year, week);
         LocalDate monday = finder.getMonday(year, week);
-        LocalDate sunday = finder.getSunday(year, week);
+        LocalDate sunday = monday.plusDays(6);
         return ISO_DATE.format(monday) + " – " + ISO_DATE.format(sunday);
     }
 }
\ No newline at end of file
@@ -0,0 +1,423 @@
+package ru.teamscore.passwordvalidator;
+
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Список утёкших паролей, хранящийся вне кучи.
+ * <p>
+ * Список задаётся файлом хешей — отсортированными по возрастанию SHA-1 паролей (по 20 байт подряд).
+ * Из него один раз строится файл фильтра Блума ({@link #buildFilter}). При проверке оба файла
+ * отображаются в память: сначала фильтр (одна строка кэша на запрос), а при положительном ответе —
+ * точная проверка двоичным поиском по файлу хешей. Ложных срабатываний поэтому нет,
+ * а в куче хранится только этот объект.
+ * <p>
+ * Объект потокобезопасен. После {@link #close()} проверки недоступны.
+ */
+public final class BreachedPasswordBlocklist implements AutoCloseable {
+    /** Длина хеша SHA-1 в байтах */
+    public static final int HASH_BYTES = 20;
+
+    private static final int MAGIC = 0x50574246; // "PWBF"
+    private static final int HEADER_BYTES = 32;
+    private static final int BLOCK_BYTES = 64;   // блок фильтра — одна строка кэша
+    private static final int MAX_PROBES = 16;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private static final ThreadLocal<Sha1> SHA1 = ThreadLocal.withInitial(Sha1::new);
+
+    private final Arena arena;
+    private final MemorySegment hashes;
+    private final MemorySegment filter;
+    private final long hashCount;
+    private final long blockCount;
+    private final int probes;
+
+    private BreachedPasswordBlocklist(Arena arena, MemorySegment hashes, MemorySegment filter) {
+        this.arena = arena;
+        this.hashes = hashes;
+        this.filter = filter;
+        this.hashCount = hashes.byteSize() / HASH_BYTES;
+        this.probes = filter.get(INT, 4);
+        this.blockCount = filter.get(LONG, 8);
+    }
+
+    /**
+     * Открывает список по файлу хешей и построенному по нему файлу фильтра.
+     *
+     * @throws IllegalArgumentException если файлы повреждены или не соответствуют друг другу
+     */
+    public static BreachedPasswordBlocklist open(Path hashFile, Path filterFile) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel hashChannel = FileChannel.open(hashFile, StandardOpenOption.READ);
+             FileChannel filterChannel = FileChannel.open(filterFile, StandardOpenOption.READ)) {
+            MemorySegment hashes = mapHashes(hashChannel, arena);
+            long filterSize = filterChannel.size();
+            if (filterSize < HEADER_BYTES) {
+                throw new IllegalArgumentException("Filter file is too short: " + filterSize);
+            }
+            MemorySegment filter = filterChannel.map(FileChannel.MapMode.READ_ONLY, 0, filterSize, arena);
+            long blocks = filter.get(LONG, 8);
+            if (filter.get(INT, 0) != MAGIC
+                    || blocks <= 0 || filterSize != HEADER_BYTES + blocks * BLOCK_BYTES) {
+                throw new IllegalArgumentException("Not a blocklist filter file: " + filterFile);
+            }
+            if (filter.get(LONG, 16) != hashes.byteSize() / HASH_BYTES) {
+                throw new IllegalArgumentException("Filter was built for another hash file: " + filterFile);
+            }
+            return new BreachedPasswordBlocklist(arena, hashes, filter);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Строит файл фильтра Блума по отсортированному файлу хешей.
+     *
+     * @param falsePositiveRate доля паролей, для которых потребуется точная проверка (от 0 до 1)
+     * @throws IllegalArgumentException если файл хешей не отсортирован или его размер не кратен 20 байтам
+     */
+    public static void buildFilter(Path hashFile, Path filterFile, double falsePositiveRate) throws IOException {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1, got: " + falsePositiveRate);
+        }
+        try (Arena arena = Arena.ofConfined();
+             FileChannel hashChannel = FileChannel.open(hashFile, StandardOpenOption.READ);
+             FileChannel filterChannel = FileChannel.open(filterFile, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment hashes = mapHashes(hashChannel, arena);
+            long count = hashes.byteSize() / HASH_BYTES;
+
+            // m = -n ln p / ln²2 бит, k = m / n * ln 2 проб
+            double bitsPerHash = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            int probes = (int) Math.max(1, Math.min(MAX_PROBES, Math.round(bitsPerHash * Math.log(2))));
+            long blocks = Math.max(1, (long) Math.ceil(count * bitsPerHash / (BLOCK_BYTES * 8)));
+
+            MemorySegment filter = filterChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + blocks * BLOCK_BYTES, arena);
+            filter.set(INT, 0, MAGIC);
+            filter.set(INT, 4, probes);
+            filter.set(LONG, 8, blocks);
+            filter.set(LONG, 16, count);
+
+            for (long i = 0; i < count; i++) {
+                long offset = i * HASH_BYTES;
+                if (i > 0 && compare(hashes, offset - HASH_BYTES, hashes, offset) > 0) {
+                    throw new IllegalArgumentException("Hash file is not sorted at entry " + i);
+                }
+                long h1 = hashes.get(LONG, offset);
+                long h2 = hashes.get(LONG, offset + 8);
+                long step = probeStep(hashes, offset);
+                long block = HEADER_BYTES + Math.unsignedMultiplyHigh(h1, blocks) * BLOCK_BYTES;
+                for (int probe = 0; probe < probes; probe++) {
+                    int bit = (int) ((h2 + probe * step) >>> 55); // 0..511
+                    long word = block + (bit >>> 6) * Long.BYTES;
+                    filter.set(LONG, word, filter.get(LONG, word) | (1L << (bit & 63)));
+                }
+            }
+            filter.force();
+        }
+    }
+
+    /**
+     * Преобразует текстовый список хешей (строки {@code HEX} или {@code HEX:количество},
+     * как в публичных списках утечек) в двоичный файл хешей. Строки должны быть отсортированы.
+     *
+     * @return количество записанных хешей
+     * @throws IllegalArgumentException если строка некорректна или порядок нарушен
+     */
+    public static long convertHexHashes(Path textFile, Path hashFile) throws IOException {
+        byte[] previous = null;
+        byte[] hash = new byte[HASH_BYTES];
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(textFile, StandardCharsets.US_ASCII);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(hashFile), 1 << 16)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int end = line.indexOf(':');
+                String digits = (end < 0 ? line : line.substring(0, end)).strip();
+                if (digits.isEmpty()) {
+                    continue;
+                }
+                if (digits.length() != HASH_BYTES * 2) {
+                    throw new IllegalArgumentException("Invalid SHA-1 hash at line " + lineNumber + ": " + digits);
+                }
+                try {
+                    for (int i = 0; i < HASH_BYTES; i++) {
+                        hash[i] = (byte) HexFormat.fromHexDigits(digits, i * 2, i * 2 + 2);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid SHA-1 hash at line " + lineNumber + ": " + digits, e);
+                }
+                if (previous == null) {
+                    previous = new byte[HASH_BYTES];
+                } else if (Arrays.compareUnsigned(previous, hash) > 0) {
+                    throw new IllegalArgumentException("Hashes are not sorted at line " + lineNumber);
+                }
+                out.write(hash);
+                System.arraycopy(hash, 0, previous, 0, HASH_BYTES);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Проверяет, есть ли пароль в списке утечек.
+     */
+    public boolean contains(CharSequence password) {
+        return containsDigest(SHA1.get().digest(password));
+    }
+
+    /**
+     * Проверяет, есть ли пароль, заданный массивом символов, в списке утечек (массив не копируется).
+     */
+    public boolean contains(char[] password) {
+        return containsDigest(SHA1.get().digest(password));
+    }
+
+    /**
+     * Проверяет, есть ли в списке утечек пароль в UTF-8 (от позиции до предела буфера).
+     * Байты декодируются так же, как при проверке в {@link PasswordPolicy} (некорректные
+     * последовательности — U+FFFD), поэтому ответ совпадает с проверкой того же пароля строкой.
+     * Позиция не изменяется.
+     */
+    public boolean contains(ByteBuffer password) {
+        return containsDigest(SHA1.get().digest(password));
+    }
+
+    /**
+     * Проверяет, есть ли в списке пароль с указанным хешем SHA-1.
+     *
+     * @throws IllegalArgumentException если длина хеша не 20 байт
+     */
+    public boolean containsSha1(byte[] hash) {
+        if (hash.length != HASH_BYTES) {
+            throw new IllegalArgumentException("SHA-1 hash must be " + HASH_BYTES + " bytes long, got: " + hash.length);
+        }
+        return containsHash(hash);
+    }
+
+    /**
+     * Ищет хеш из буфера потока и затирает его, чтобы хеш пароля не оставался в памяти.
+     */
+    private boolean containsDigest(byte[] hash) {
+        try {
+            return containsHash(hash);
+        } finally {
+            Arrays.fill(hash, (byte) 0);
+        }
+    }
+
+    private boolean containsHash(byte[] hash) {
+        MemorySegment key = MemorySegment.ofArray(hash);
+        return mightContain(key) && binarySearch(key);
+    }
+
+    private boolean mightContain(MemorySegment key) {
+        long h1 = key.get(LONG, 0);
+        long h2 = key.get(LONG, 8);
+        long step = probeStep(key, 0);
+        long block = HEADER_BYTES + Math.unsignedMultiplyHigh(h1, blockCount) * BLOCK_BYTES;
+        for (int probe = 0; probe < probes; probe++) {
+            int bit = (int) ((h2 + probe * step) >>> 55);
+            if ((filter.get(LONG, block + (bit >>> 6) * Long.BYTES) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean binarySearch(MemorySegment key) {
+        long low = 0;
+        long high = hashCount - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            int cmp = compare(hashes, middle * HASH_BYTES, key, 0);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Шаг между битами одного хеша в блоке: нечётное 64-битное число из последних 4 байт хеша
+     * и младших 4 байт {@code h1}, чтобы старшие 9 бит суммы менялись от пробы к пробе.
+     */
+    private static long probeStep(MemorySegment hash, long offset) {
+        return ((long) hash.get(INT, offset + 16) << 32) | (hash.get(LONG, offset) & 0xFFFFFFFFL) | 1L;
+    }
+
+    /**
+     * Сравнивает два хеша как беззнаковые числа big-endian.
+     */
+    private static int compare(MemorySegment a, long aOffset, MemorySegment b, long bOffset) {
+        int cmp = Long.compareUnsigned(a.get(LONG, aOffset), b.get(LONG, bOffset));
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(a.get(LONG, aOffset + 8), b.get(LONG, bOffset + 8));
+        }
+        if (cmp == 0) {
+            cmp = Integer.compareUnsigned(a.get(INT, aOffset + 16), b.get(INT, bOffset + 16));
+        }
+        return cmp;
+    }
+
+    private static MemorySegment mapHashes(FileChannel channel, Arena arena) throws IOException {
+        long size = channel.size();
+        if (size % HASH_BYTES != 0) {
+            throw new IllegalArgumentException("Hash file size must be a multiple of " + HASH_BYTES + " bytes: " + size);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+    }
+
+    public long size() { return hashCount; }
+
+    /** Размер файла фильтра в байтах (отображается в память, в кучу не загружается) */
+    public long getFilterBytes() { return filter.byteSize(); }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    /**
+     * Хеширование пароля без создания объектов: буферы и {@link MessageDigest} свои у каждого потока.
+     * Закодированный пароль затирается сразу после хеширования, хеш — после поиска.
+     */
+    private static final class Sha1 {
+        private final MessageDigest digest;
+        private final byte[] hash = new byte[HASH_BYTES];
+        private byte[] utf8 = new byte[64];
+
+        Sha1() {
+            try {
+                digest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 is not available", e);
+            }
+        }
+
+        /**
+         * Хеширует строку в UTF-8 (непарные суррогаты заменяются на '?', как в String.getBytes).
+         */
+        byte[] digest(CharSequence password) {
+            int length = password.length();
+            ensureCapacity(length * 3);
+            int n = 0;
+            for (int i = 0; i < length; i++) {
+                char c = password.charAt(i);
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(password.charAt(i + 1))) {
+                    n = put(Character.toCodePoint(c, password.charAt(++i)), n);
+                } else {
+                    n = put(Character.isSurrogate(c) ? '?' : c, n);
+                }
+            }
+            return digest(n);
+        }
+
+        /**
+         * То же для массива символов.
+         */
+        byte[] digest(char[] password) {
+            int length = password.length;
+            ensureCapacity(length * 3);
+            int n = 0;
+            for (int i = 0; i < length; i++) {
+                char c = password[i];
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(password[i + 1])) {
+                    n = put(Character.toCodePoint(c, password[++i]), n);
+                } else {
+                    n = put(Character.isSurrogate(c) ? '?' : c, n);
+                }
+            }
+            return digest(n);
+        }
+
+        /**
+         * Хеширует символы, декодированные из UTF-8 так же, как при проверке пароля:
+         * корректные последовательности переписываются без изменений, некорректные — как U+FFFD.
+         */
+        byte[] digest(ByteBuffer password) {
+            // U+FFFD занимает 3 байта и может заменять один
+            ensureCapacity(password.remaining() * 3);
+            int limit = password.limit();
+            int n = 0;
+            for (int i = password.position(); i < limit; ) {
+                long character = Utf8.decode(password, i, limit);
+                n = put(Utf8.codePoint(character), n);
+                i = Utf8.next(character);
+            }
+            return digest(n);
+        }
+
+        /**
+         * Хеширует первые {@code length} байт буфера потока и затирает их,
+         * чтобы пароль не оставался в памяти после проверки.
+         */
+        private byte[] digest(int length) {
+            digest.update(utf8, 0, length);
+            Arrays.fill(utf8, 0, length, (byte) 0);
+            try {
+                digest.digest(hash, 0, HASH_BYTES);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            return hash;
+        }
+
+        private void ensureCapacity(int length) {
+            if (utf8.length < length) {
+                utf8 = new byte[Math.max(length, utf8.length * 2)];
+            }
+        }
+
+        /**
+         * Записывает символ в UTF-8 в буфер потока с позиции {@code n} и возвращает позицию после него.
+         */
+        private int put(int codePoint, int n) {
+            byte[] out = utf8;
+            if (codePoint < 0x80) {
+                out[n++] = (byte) codePoint;
+            } else if (codePoint < 0x800) {
+                out[n++] = (byte) (0xC0 | (codePoint >> 6));
+                out[n++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                out[n++] = (byte) (0xE0 | (codePoint >> 12));
+                out[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[n++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                out[n++] = (byte) (0xF0 | (codePoint >> 18));
+                out[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[n++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            return n;
+        }
+    }
+}
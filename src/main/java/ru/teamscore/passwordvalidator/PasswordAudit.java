@@ -0,0 +1,270 @@
+package ru.teamscore.passwordvalidator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Массовая проверка учётных данных (имя пользователя и пароль) по политике паролей.
+ * <p>
+ * Данные читаются последовательно пачками, пачки проверяются параллельно в {@link ForkJoinPool}.
+ * Одновременно в памяти находится не больше двух пачек на поток пула, поэтому память
+ * не зависит от объёма входных данных (кроме списка номеров непрошедших записей).
+ * Вместо {@link PasswordValidator.ValidationResult} на каждую запись возвращается
+ * {@link Report} — счётчики нарушений и номера записей, не прошедших проверку.
+ */
+public final class PasswordAudit {
+    /** Количество записей в пачке, которая проверяется одним потоком. */
+    private static final int DEFAULT_BATCH_SIZE = 1 << 12;
+
+    private final PasswordPolicy policy;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    public PasswordAudit(PasswordPolicy policy) {
+        this(policy, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    public PasswordAudit(PasswordPolicy policy, ForkJoinPool pool) {
+        this(policy, pool, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param policy    политика, по которой проверяются пароли
+     * @param pool      пул потоков для проверки
+     * @param batchSize размер пачки записей (> 0)
+     */
+    public PasswordAudit(PasswordPolicy policy, ForkJoinPool pool, int batchSize) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy must not be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        this.policy = policy;
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Проверяет учётные данные из потока: ключ — имя пользователя, значение — пароль.
+     * Номер записи — её порядковый номер в потоке (с 0).
+     */
+    public Report audit(Stream<? extends Map.Entry<String, String>> credentials) {
+        Iterator<? extends Map.Entry<String, String>> iterator = credentials.iterator();
+        try {
+            return run((userNames, passwords) -> {
+                int count = 0;
+                while (count < userNames.length && iterator.hasNext()) {
+                    Map.Entry<String, String> credential = iterator.next();
+                    userNames[count] = credential.getKey();
+                    passwords[count] = credential.getValue();
+                    count++;
+                }
+                return count;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // источник в памяти не бросает IOException
+        }
+    }
+
+    /**
+     * Проверяет учётные данные из текстового файла в UTF-8: каждая строка —
+     * {@code имя<separator>пароль} (пароль — всё после первого разделителя).
+     * Номер записи — номер строки файла (с 0).
+     *
+     * @throws IllegalArgumentException если в строке нет разделителя
+     */
+    public Report auditFile(Path file, char separator) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long[] lineNumber = {0};
+            return run((userNames, passwords) -> {
+                int count = 0;
+                String line;
+                while (count < userNames.length && (line = reader.readLine()) != null) {
+                    lineNumber[0]++;
+                    int split = line.indexOf(separator);
+                    if (split < 0) {
+                        throw new IllegalArgumentException("No separator at line " + lineNumber[0] + " of " + file);
+                    }
+                    userNames[count] = line.substring(0, split);
+                    passwords[count] = line.substring(split + 1);
+                    count++;
+                }
+                return count;
+            });
+        }
+    }
+
+    private Report run(Source source) throws IOException {
+        Semaphore inFlight = new Semaphore(2 * pool.getParallelism());
+        Collector collector = new Collector();
+        long first = 0;
+        try {
+            while (true) {
+                String[] userNames = new String[batchSize];
+                String[] passwords = new String[batchSize];
+                int count = source.fill(userNames, passwords);
+                if (count == 0) {
+                    break;
+                }
+                inFlight.acquireUninterruptibly();
+                if (collector.failure != null) {
+                    inFlight.release();
+                    break;
+                }
+                long batchFirst = first;
+                try {
+                    pool.execute(() -> {
+                        try {
+                            collector.add(batchFirst, check(userNames, passwords, count));
+                        } catch (RuntimeException | Error e) {
+                            collector.fail(e);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                first += count;
+            }
+        } finally {
+            // дожидаемся всех пачек, в том числе при ошибке чтения
+            inFlight.acquireUninterruptibly(2 * pool.getParallelism());
+        }
+        if (collector.failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (collector.failure instanceof Error e) {
+            throw e;
+        }
+        return collector.toReport(first);
+    }
+
+    private Batch check(String[] userNames, String[] passwords, int count) {
+        Batch batch = new Batch();
+        int[] failing = new int[Math.min(count, 16)];
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            int violations = policy.check(passwords[i], userNames[i]);
+            if (violations == 0) {
+                continue;
+            }
+            if (failed == failing.length) {
+                failing = Arrays.copyOf(failing, Math.min(count, failed * 2));
+            }
+            failing[failed++] = i;
+            for (int rest = violations; rest != 0; rest &= rest - 1) {
+                batch.counts[Integer.numberOfTrailingZeros(rest)]++;
+            }
+        }
+        batch.failing = Arrays.copyOf(failing, failed);
+        return batch;
+    }
+
+    /**
+     * Источник записей: заполняет массивы очередной пачки и возвращает число записей (0 — конец).
+     */
+    @FunctionalInterface
+    private interface Source {
+        int fill(String[] userNames, String[] passwords) throws IOException;
+    }
+
+    private static final class Batch {
+        final long[] counts = new long[Integer.SIZE];
+        int[] failing;  // номера внутри пачки
+    }
+
+    private static final class Collector {
+        private final long[] counts = new long[Integer.SIZE];
+        private final TreeMap<Long, int[]> failing = new TreeMap<>();
+        private long failedCount;
+        volatile Throwable failure;
+
+        synchronized void add(long first, Batch batch) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += batch.counts[i];
+            }
+            if (batch.failing.length > 0) {
+                failing.put(first, batch.failing);
+                failedCount += batch.failing.length;
+            }
+        }
+
+        synchronized void fail(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        synchronized Report toReport(long total) {
+            long[] indexes = new long[Math.toIntExact(failedCount)];
+            int n = 0;
+            for (Map.Entry<Long, int[]> entry : failing.entrySet()) {
+                for (int offset : entry.getValue()) {
+                    indexes[n++] = entry.getKey() + offset;
+                }
+            }
+            return new Report(total, counts.clone(), indexes);
+        }
+    }
+
+    /**
+     * Итоги массовой проверки.
+     */
+    public static final class Report {
+        private final long total;
+        private final long[] counts;          // по номеру бита нарушения
+        private final long[] failingIndexes;  // по возрастанию
+
+        private Report(long total, long[] counts, long[] failingIndexes) {
+            this.total = total;
+            this.counts = counts;
+            this.failingIndexes = failingIndexes;
+        }
+
+        public long getTotal() { return total; }
+        public long getValidCount() { return total - failingIndexes.length; }
+        public long getInvalidCount() { return failingIndexes.length; }
+
+        /**
+         * Возвращает число записей с указанным нарушением.
+         *
+         * @param violation одно из нарушений ({@link PasswordValidator#TOO_SHORT} и т.д.)
+         * @throws IllegalArgumentException если передан не один бит нарушения
+         */
+        public long getCount(int violation) {
+            if (Integer.bitCount(violation) != 1) {
+                throw new IllegalArgumentException("Expected a single violation bit, got: " + violation);
+            }
+            return counts[Integer.numberOfTrailingZeros(violation)];
+        }
+
+        /**
+         * Возвращает номера записей, не прошедших проверку, по возрастанию.
+         */
+        public long[] getFailingIndexes() {
+            return failingIndexes.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "Audit report: " + total + " checked, " + getInvalidCount() + " invalid";
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package ru.teamscore.passwordvalidator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static ru.teamscore.passwordvalidator.PasswordValidator.*;
+
+/**
+ * Настраиваемая политика сложности пароля.
+ * <p>
+ * При сборке политика компилируется в таблицу классов для всех 65536 значений {@code char}
+ * (цифра, строчная, заглавная, спецсимвол, запрещённый символ), поэтому проверка пароля —
+ * один проход с чтением из таблицы и счётчиком повторов, независимо от числа правил.
+ * Для каждого набора нарушений заранее создаётся общий {@link PasswordValidator.ValidationResult}.
+ * <p>
+ * Если задан {@link BreachedPasswordBlocklist}, пароль дополнительно ищется в списке утечек.
+ * <p>
+ * Кроме {@link String} пароль можно передать как {@link CharSequence}, {@code char[]} или
+ * {@link ByteBuffer} в UTF-8: проверка идёт прямо по ним, без промежуточных строк и копий,
+ * так что после проверки буфер можно затереть.
+ */
+public final class PasswordPolicy {
+    /** Политика по умолчанию — правила, описанные в {@link PasswordValidator} */
+    public static final PasswordPolicy DEFAULT = builder().build();
+
+    // Классы символов в таблице
+    private static final byte DIGIT = 1;
+    private static final byte LOWERCASE = 1 << 1;
+    private static final byte UPPERCASE = 1 << 2;
+    private static final byte SPECIAL = 1 << 3;
+    private static final byte FORBIDDEN = 1 << 4;
+
+    private final int minLength;
+    private final int maxRepeats;
+    private final boolean rejectUsername;
+    private final int maxUsernameDistance; // < 0 — сходство с именем не проверяется
+    private final BreachedPasswordBlocklist blocklist;
+    private final int required;     // классы, которые должны встретиться в пароле
+    private final byte[] classes;   // класс каждого char
+    private final String[] messages;
+    private final PasswordValidator.ValidationResult[] results;
+
+    private PasswordPolicy(Builder builder) {
+        this.minLength = builder.minLength;
+        this.maxRepeats = builder.maxRepeats;
+        this.rejectUsername = builder.rejectUsername;
+        this.maxUsernameDistance = builder.maxUsernameDistance;
+        this.blocklist = builder.blocklist;
+        this.required = (builder.requireDigit ? DIGIT : 0) | (builder.requireLowercase ? LOWERCASE : 0)
+                | (builder.requireUppercase ? UPPERCASE : 0) | (builder.requireSpecial ? SPECIAL : 0);
+        this.classes = compileClasses(builder.forbidSpacesAndQuotes, builder.forbiddenCharacters);
+        this.messages = buildMessages(builder);
+        this.results = new PasswordValidator.ValidationResult[1 << messages.length];
+        for (int violations = 0; violations < results.length; violations++) {
+            results[violations] = violations == 0
+                    ? PasswordValidator.ValidationResult.VALID
+                    : new PasswordValidator.ValidationResult(violations, messages);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Создаёт политику по настройкам (ключи с префиксом {@code password.}):
+     * minLength, requireDigit, requireLowercase, requireUppercase, requireSpecial,
+     * forbidSpacesAndQuotes, forbiddenCharacters, maxRepeats, rejectUsername, maxUsernameDistance.
+     * Отсутствующие ключи принимают значения политики по умолчанию.
+     *
+     * @throws IllegalArgumentException если значение настройки некорректно
+     */
+    public static PasswordPolicy fromProperties(Properties properties) {
+        Builder builder = builder();
+        String value;
+        if ((value = properties.getProperty("password.minLength")) != null) {
+            builder.minLength(parseInt("password.minLength", value));
+        }
+        if ((value = properties.getProperty("password.requireDigit")) != null) {
+            builder.requireDigit(Boolean.parseBoolean(value.trim()));
+        }
+        if ((value = properties.getProperty("password.requireLowercase")) != null) {
+            builder.requireLowercase(Boolean.parseBoolean(value.trim()));
+        }
+        if ((value = properties.getProperty("password.requireUppercase")) != null) {
+            builder.requireUppercase(Boolean.parseBoolean(value.trim()));
+        }
+        if ((value = properties.getProperty("password.requireSpecial")) != null) {
+            builder.requireSpecial(Boolean.parseBoolean(value.trim()));
+        }
+        if ((value = properties.getProperty("password.forbidSpacesAndQuotes")) != null) {
+            builder.forbidSpacesAndQuotes(Boolean.parseBoolean(value.trim()));
+        }
+        if ((value = properties.getProperty("password.forbiddenCharacters")) != null) {
+            builder.forbidCharacters(value);
+        }
+        if ((value = properties.getProperty("password.maxRepeats")) != null) {
+            builder.maxRepeats(parseInt("password.maxRepeats", value));
+        }
+        if ((value = properties.getProperty("password.rejectUsername")) != null) {
+            builder.rejectUsername(Boolean.parseBoolean(value.trim()));
+        }
+        if ((value = properties.getProperty("password.maxUsernameDistance")) != null) {
+            builder.rejectSimilarToUsername(parseInt("password.maxUsernameDistance", value));
+        }
+        return builder.build();
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Проверка пароля по политике с детальной информацией об ошибках
+     * @param password пароль
+     * @param userName имя пользователя
+     * @return общий для одинаковых наборов ошибок объект ValidationResult
+     */
+    public PasswordValidator.ValidationResult validate(String password, String userName) {
+        return results[check(password, userName)];
+    }
+
+    /**
+     * Проверяет пароль за один проход по символам без создания объектов.
+     * @param password пароль
+     * @param userName имя пользователя
+     * @return битовая маска нарушений ({@link PasswordValidator#TOO_SHORT} и т.д.), 0 — пароль валиден
+     */
+    public int check(String password, String userName) {
+        if (password == null) {
+            return TOO_SHORT;
+        }
+
+        int length = password.length();
+        int seen = 0;
+        int longestRun = 0;
+        int run = 0;
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char symbol = password.charAt(i);
+            seen |= classes[symbol];
+            run = (symbol == previous) ? run + 1 : 1;
+            longestRun = Math.max(longestRun, run);
+            previous = symbol;
+        }
+        return violations(length, seen, longestRun)
+                | (rejectUsername && password.equals(userName) ? MATCHES_USERNAME : 0)
+                | similarity(password, userName)
+                | (blocklist != null && blocklist.contains(password) ? BREACHED : 0);
+    }
+
+    /**
+     * Проверка пароля, заданного последовательностью символов (например, {@link java.nio.CharBuffer}
+     * или {@link StringBuilder}), без копирования в строку.
+     */
+    public PasswordValidator.ValidationResult validate(CharSequence password, CharSequence userName) {
+        return results[check(password, userName)];
+    }
+
+    /**
+     * Проверка пароля, заданного массивом символов, без копирования в строку.
+     */
+    public PasswordValidator.ValidationResult validate(char[] password, CharSequence userName) {
+        return results[check(password, userName)];
+    }
+
+    /**
+     * Проверка пароля в кодировке UTF-8 от позиции до предела буфера. Позиция буфера не изменяется.
+     */
+    public PasswordValidator.ValidationResult validate(ByteBuffer password, CharSequence userName) {
+        return results[check(password, userName)];
+    }
+
+    /**
+     * Аналог {@link #check(String, String)} для последовательности символов.
+     */
+    public int check(CharSequence password, CharSequence userName) {
+        if (password instanceof String string && (userName == null || userName instanceof String)) {
+            return check(string, (String) userName);
+        }
+        if (password == null) {
+            return TOO_SHORT;
+        }
+
+        int length = password.length();
+        int seen = 0;
+        int longestRun = 0;
+        int run = 0;
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char symbol = password.charAt(i);
+            seen |= classes[symbol];
+            run = (symbol == previous) ? run + 1 : 1;
+            longestRun = Math.max(longestRun, run);
+            previous = symbol;
+        }
+        return violations(length, seen, longestRun)
+                | (rejectUsername && userName != null && CharSequence.compare(password, userName) == 0
+                        ? MATCHES_USERNAME : 0)
+                | similarity(password, userName)
+                | (blocklist != null && blocklist.contains(password) ? BREACHED : 0);
+    }
+
+    /**
+     * Аналог {@link #check(String, String)} для массива символов.
+     */
+    public int check(char[] password, CharSequence userName) {
+        if (password == null) {
+            return TOO_SHORT;
+        }
+
+        int length = password.length;
+        boolean matchesUser = userName != null && userName.length() == length;
+        int seen = 0;
+        int longestRun = 0;
+        int run = 0;
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char symbol = password[i];
+            seen |= classes[symbol];
+            run = (symbol == previous) ? run + 1 : 1;
+            longestRun = Math.max(longestRun, run);
+            previous = symbol;
+            matchesUser = matchesUser && userName.charAt(i) == symbol;
+        }
+        return violations(length, seen, longestRun)
+                | (rejectUsername && matchesUser ? MATCHES_USERNAME : 0)
+                | similarity(password, password.length, userName)
+                | (blocklist != null && blocklist.contains(password) ? BREACHED : 0);
+    }
+
+    /**
+     * Аналог {@link #check(String, String)} для пароля в кодировке UTF-8 (от позиции до предела буфера).
+     * Байты декодируются на лету; некорректные последовательности считаются символом U+FFFD,
+     * как при создании строки из байтов. Позиция буфера не изменяется.
+     */
+    public int check(ByteBuffer password, CharSequence userName) {
+        if (password == null) {
+            return TOO_SHORT;
+        }
+
+        int userLength = userName == null ? -1 : userName.length();
+        boolean matchesUser = userName != null;
+        // символы нужны целиком только для проверки сходства с именем
+        char[] decoded = maxUsernameDistance >= 0 ? UsernameSimilarity.charBuffer(password.remaining()) : null;
+        int length = 0;
+        int seen = 0;
+        int longestRun = 0;
+        int run = 0;
+        char previous = 0;
+        int limit = password.limit();
+        for (int i = password.position(); i < limit; ) {
+            long character = Utf8.decode(password, i, limit);
+            int codePoint = Utf8.codePoint(character);
+            i = Utf8.next(character);
+
+            boolean supplementary = codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT;
+            char symbol = supplementary ? Character.highSurrogate(codePoint) : (char) codePoint;
+            for (int unit = supplementary ? 2 : 1; unit > 0; unit--) {
+                seen |= classes[symbol];
+                run = (symbol == previous) ? run + 1 : 1;
+                longestRun = Math.max(longestRun, run);
+                previous = symbol;
+                matchesUser = matchesUser && length < userLength && userName.charAt(length) == symbol;
+                if (decoded != null) {
+                    decoded[length] = symbol;
+                }
+                length++;
+                symbol = Character.lowSurrogate(codePoint);
+            }
+        }
+        int similar = 0;
+        if (decoded != null) {
+            similar = similarity(decoded, length, userName);
+            Arrays.fill(decoded, 0, length, '\0');
+        }
+        return violations(length, seen, longestRun)
+                | (rejectUsername && matchesUser && length == userLength ? MATCHES_USERNAME : 0)
+                | similar
+                | (blocklist != null && blocklist.contains(password) ? BREACHED : 0);
+    }
+
+    private int similarity(char[] password, int length, CharSequence userName) {
+        return maxUsernameDistance >= 0 && UsernameSimilarity.isSimilar(password, length, userName, maxUsernameDistance)
+                ? SIMILAR_TO_USERNAME : 0;
+    }
+
+    private int similarity(CharSequence password, CharSequence userName) {
+        return maxUsernameDistance >= 0 && UsernameSimilarity.isSimilar(password, userName, maxUsernameDistance)
+                ? SIMILAR_TO_USERNAME : 0;
+    }
+
+    /**
+     * Переводит итоги прохода (длину, встреченные классы, длину самого длинного повтора) в нарушения.
+     */
+    private int violations(int length, int seen, int longestRun) {
+        int missing = required & ~seen;
+        int violations = 0;
+        if (length < minLength) violations |= TOO_SHORT;
+        if ((missing & DIGIT) != 0) violations |= NO_DIGIT;
+        if ((missing & LOWERCASE) != 0) violations |= NO_LOWERCASE;
+        if ((missing & UPPERCASE) != 0) violations |= NO_UPPERCASE;
+        if ((seen & FORBIDDEN) != 0) violations |= HAS_SPACES_OR_QUOTES;
+        if ((missing & SPECIAL) != 0) violations |= NO_SPECIAL;
+        if (maxRepeats > 0 && longestRun > maxRepeats) violations |= TOO_MANY_REPEATS;
+        return violations;
+    }
+
+    private static byte[] compileClasses(boolean forbidSpacesAndQuotes, String forbiddenCharacters) {
+        byte[] classes = new byte[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char symbol = (char) c;
+            byte cls;
+            if (Character.isDigit(symbol)) {
+                cls = DIGIT;
+            } else if (Character.isLowerCase(symbol)) {
+                cls = LOWERCASE;
+            } else if (Character.isUpperCase(symbol)) {
+                cls = UPPERCASE;
+            } else if (forbidSpacesAndQuotes && (Character.isSpaceChar(symbol)
+                    || symbol == '\t' || symbol == '"' || symbol == '\'')) {
+                cls = FORBIDDEN;
+            } else {
+                cls = SPECIAL;
+            }
+            classes[c] = cls;
+        }
+        for (int i = 0; i < forbiddenCharacters.length(); i++) {
+            classes[forbiddenCharacters.charAt(i)] |= FORBIDDEN;
+        }
+        return classes;
+    }
+
+    private static String[] buildMessages(Builder builder) {
+        String forbidden;
+        if (builder.forbiddenCharacters.isEmpty()) {
+            forbidden = "Password must not contain spaces, tabs, or quotes";
+        } else if (builder.forbidSpacesAndQuotes) {
+            forbidden = "Password must not contain spaces, tabs, quotes, or any of: " + builder.forbiddenCharacters;
+        } else {
+            forbidden = "Password must not contain any of: " + builder.forbiddenCharacters;
+        }
+        // порядок совпадает с битами нарушений в PasswordValidator
+        return new String[]{
+                "Password must be at least " + builder.minLength + " characters long",
+                "Password must contain at least one digit",
+                "Password must contain at least one lowercase letter",
+                "Password must contain at least one uppercase letter",
+                "Password must not match the username",
+                forbidden,
+                "Password must contain at least one special character",
+                "Password must not contain more than " + builder.maxRepeats + " identical characters in a row",
+                "Password has appeared in a data breach",
+                "Password must not be similar to the username"
+        };
+    }
+
+    String[] getMessages() { return messages; }
+
+    public int getMinLength() { return minLength; }
+    public int getMaxRepeats() { return maxRepeats; }
+
+    /**
+     * Построитель политики. Значения по умолчанию соответствуют правилам {@link PasswordValidator}.
+     */
+    public static final class Builder {
+        private int minLength = 8;
+        private boolean requireDigit = true;
+        private boolean requireLowercase = true;
+        private boolean requireUppercase = true;
+        private boolean requireSpecial = false;
+        private boolean forbidSpacesAndQuotes = true;
+        private String forbiddenCharacters = "";
+        private int maxRepeats = 0;
+        private boolean rejectUsername = true;
+        private int maxUsernameDistance = -1;
+        private BreachedPasswordBlocklist blocklist;
+
+        private Builder() {
+        }
+
+        /** Минимальная длина пароля (≥ 0) */
+        public Builder minLength(int minLength) {
+            if (minLength < 0) {
+                throw new IllegalArgumentException("Minimum length must not be negative, got: " + minLength);
+            }
+            this.minLength = minLength;
+            return this;
+        }
+
+        public Builder requireDigit(boolean requireDigit) {
+            this.requireDigit = requireDigit;
+            return this;
+        }
+
+        public Builder requireLowercase(boolean requireLowercase) {
+            this.requireLowercase = requireLowercase;
+            return this;
+        }
+
+        public Builder requireUppercase(boolean requireUppercase) {
+            this.requireUppercase = requireUppercase;
+            return this;
+        }
+
+        /** Требовать хотя бы один символ, не являющийся буквой или цифрой */
+        public Builder requireSpecial(boolean requireSpecial) {
+            this.requireSpecial = requireSpecial;
+            return this;
+        }
+
+        /** Запрещать пробельные символы, табуляцию и кавычки */
+        public Builder forbidSpacesAndQuotes(boolean forbidSpacesAndQuotes) {
+            this.forbidSpacesAndQuotes = forbidSpacesAndQuotes;
+            return this;
+        }
+
+        /** Дополнительно запрещённые символы */
+        public Builder forbidCharacters(String characters) {
+            this.forbiddenCharacters = characters == null ? "" : characters;
+            return this;
+        }
+
+        /** Максимальное число одинаковых символов подряд (0 — без ограничения) */
+        public Builder maxRepeats(int maxRepeats) {
+            if (maxRepeats < 0) {
+                throw new IllegalArgumentException("Maximum repeats must not be negative, got: " + maxRepeats);
+            }
+            this.maxRepeats = maxRepeats;
+            return this;
+        }
+
+        /** Запрещать пароль, совпадающий с именем пользователя */
+        public Builder rejectUsername(boolean rejectUsername) {
+            this.rejectUsername = rejectUsername;
+            return this;
+        }
+
+        /**
+         * Запрещать пароли, похожие на имя пользователя без учёта регистра: содержащие имя
+         * или отличающиеся от него не больше чем на {@code maxDistance} правок.
+         * По умолчанию не проверяется.
+         */
+        public Builder rejectSimilarToUsername(int maxDistance) {
+            if (maxDistance < 0) {
+                throw new IllegalArgumentException("Maximum distance must not be negative, got: " + maxDistance);
+            }
+            this.maxUsernameDistance = maxDistance;
+            return this;
+        }
+
+        /**
+         * Список утёкших паролей (null — не проверять). Политика не закрывает список,
+         * он должен оставаться открытым, пока политика используется.
+         */
+        public Builder blocklist(BreachedPasswordBlocklist blocklist) {
+            this.blocklist = blocklist;
+            return this;
+        }
+
+        public PasswordPolicy build() {
+            return new PasswordPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package ru.teamscore.passwordvalidator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Оценка сложности пароля по числу попыток подбора (в духе zxcvbn).
+ * <p>
+ * Пароль раскладывается на словарные слова, клавиатурные ряды и последовательности
+ * ({@code qwerty}, {@code 12345}, {@code abcd} и обратные) и случайные символы так, чтобы
+ * число попыток было минимальным. Слово стоит столько попыток, каков его ранг в словаре,
+ * с поправками на заглавные буквы и l33t-замены ({@code p@ssw0rd}); случайный символ — 10 попыток.
+ * <p>
+ * Все образцы собраны в один автомат Ахо — Корасик, хранящийся в массивах int: переходы
+ * достроены для всех символов, поэтому на символ пароля приходится одно чтение из таблицы.
+ * Автомат идёт одновременно по исходному паролю и по паролю с раскрытыми l33t-заменами,
+ * а минимальное число попыток считается динамическим программированием за тот же проход.
+ */
+public final class PasswordStrength {
+    private static final String WORD_LIST = "common-words.txt";
+    private static final String[] SEQUENCES = {
+            "0123456789", "1234567890", "qwertyuiop", "asdfghjkl", "zxcvbnm", "abcdefghijklmnopqrstuvwxyz"
+    };
+    private static final int MIN_SEQUENCE_LENGTH = 3;
+
+    // алфавит автомата: a-z и 0-9, остальные символы возвращают автомат в корень
+    private static final int ALPHABET = 36;
+    private static final byte[] SYMBOL_INDEX = new byte[128];
+    // l33t-замены: символ -> буква
+    private static final char[] L33T = new char[128];
+
+    private static final double BRUTEFORCE_BITS = log2(10);
+    private static final double LOG10_2 = Math.log10(2);
+
+    static {
+        Arrays.fill(SYMBOL_INDEX, (byte) -1);
+        for (char c = 'a'; c <= 'z'; c++) {
+            SYMBOL_INDEX[c] = (byte) (c - 'a');
+            SYMBOL_INDEX[Character.toUpperCase(c)] = (byte) (c - 'a');
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SYMBOL_INDEX[c] = (byte) (26 + c - '0');
+        }
+        String[] substitutions = {"4a", "@a", "8b", "(c", "3e", "6g", "1i", "!i", "|l", "0o", "$s", "5s", "7t", "+t", "2z"};
+        for (String substitution : substitutions) {
+            L33T[substitution.charAt(0)] = substitution.charAt(1);
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final int[] next;          // next[state * ALPHABET + symbol] — переход автомата
+    private final int[] pattern;       // образец, оканчивающийся в состоянии, или -1
+    private final int[] outputLink;    // ближайшее по суффиксным ссылкам состояние с образцом, или 0
+    private final int[] patternLength;
+    private final float[] patternBits; // log2 числа попыток для образца без поправок
+
+    private PasswordStrength(int[] next, int[] pattern, int[] outputLink, int[] patternLength, float[] patternBits) {
+        this.next = next;
+        this.pattern = pattern;
+        this.outputLink = outputLink;
+        this.patternLength = patternLength;
+        this.patternBits = patternBits;
+    }
+
+    /**
+     * Возвращает оценщик со встроенным словарём.
+     */
+    public static PasswordStrength getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static final class DefaultHolder {
+        static final PasswordStrength INSTANCE = load();
+
+        private static PasswordStrength load() {
+            try (InputStream in = PasswordStrength.class.getResourceAsStream(WORD_LIST)) {
+                if (in == null) {
+                    throw new IllegalStateException("Word list not found: " + WORD_LIST);
+                }
+                List<String> words = new ArrayList<>();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.strip();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        words.add(line);
+                    }
+                }
+                return fromWords(words);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Строит оценщик по словарю, упорядоченному от самых частых слов к редким.
+     * Символы слов вне a-z и 0-9 не поддерживаются: такие слова пропускаются.
+     */
+    public static PasswordStrength fromWords(List<String> words) {
+        Builder builder = new Builder();
+        for (int rank = 0; rank < words.size(); rank++) {
+            builder.add(words.get(rank).toLowerCase(), log2(rank + 1));
+        }
+        for (String sequence : SEQUENCES) {
+            String reversed = new StringBuilder(sequence).reverse().toString();
+            for (int start = 0; start < sequence.length(); start++) {
+                for (int end = start + MIN_SEQUENCE_LENGTH; end <= sequence.length(); end++) {
+                    // начало, длина и направление последовательности
+                    double bits = log2(2.0 * sequence.length() * (end - start));
+                    builder.add(sequence.substring(start, end), bits);
+                    builder.add(reversed.substring(start, end), bits);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Возвращает десятичный логарифм числа попыток, нужных для подбора пароля.
+     */
+    public double guessesLog10(CharSequence password) {
+        return guessesLog2(password) * LOG10_2;
+    }
+
+    /**
+     * Возвращает оценку сложности от 0 (подбирается мгновенно) до 4 (очень сложный):
+     * меньше 10^3, 10^6, 10^8, 10^10 попыток и больше.
+     */
+    public int score(CharSequence password) {
+        return score(guessesLog10(password));
+    }
+
+    /**
+     * Проверяет пароль по политике по умолчанию и оценивает его сложность.
+     */
+    public Result evaluate(String password, String userName) {
+        return evaluate(password, userName, PasswordPolicy.DEFAULT);
+    }
+
+    /**
+     * Проверяет пароль по политике и оценивает его сложность.
+     */
+    public Result evaluate(String password, String userName, PasswordPolicy policy) {
+        double guesses = password == null ? 0 : guessesLog10(password);
+        return new Result(policy.validate(password, userName), score(guesses), guesses);
+    }
+
+    private static int score(double guessesLog10) {
+        if (guessesLog10 < 3) return 0;
+        if (guessesLog10 < 6) return 1;
+        if (guessesLog10 < 8) return 2;
+        if (guessesLog10 < 10) return 3;
+        return 4;
+    }
+
+    private double guessesLog2(CharSequence password) {
+        int length = password.length();
+        Scratch scratch = SCRATCH.get().ensureCapacity(length + 1);
+        double[] bits = scratch.bits;          // bits[i] — минимум для первых i символов
+        int[] uppercase = scratch.uppercase;   // префиксные суммы заглавных букв
+        int[] substituted = scratch.substituted; // префиксные суммы l33t-замен
+
+        bits[0] = 0;
+        int plain = 0;
+        int l33t = 0;
+        for (int i = 1; i <= length; i++) {
+            char symbol = password.charAt(i - 1);
+            boolean isUpper = Character.isUpperCase(symbol);
+            char replacement = symbol < 128 ? L33T[symbol] : 0;
+            uppercase[i] = uppercase[i - 1] + (isUpper ? 1 : 0);
+            substituted[i] = substituted[i - 1] + (replacement != 0 ? 1 : 0);
+
+            plain = step(plain, symbol);
+            l33t = step(l33t, replacement != 0 ? replacement : symbol);
+
+            double best = bits[i - 1] + BRUTEFORCE_BITS;
+            best = Math.min(best, bestMatch(plain, i, bits, uppercase, null));
+            if (substituted[i] != 0) {
+                best = Math.min(best, bestMatch(l33t, i, bits, uppercase, substituted));
+            }
+            bits[i] = best;
+        }
+        return bits[length];
+    }
+
+    private int step(int state, char symbol) {
+        int index = symbol < 128 ? SYMBOL_INDEX[symbol] : -1;
+        return index < 0 ? 0 : next[state * ALPHABET + index];
+    }
+
+    /**
+     * Минимум попыток для первых {@code end} символов, если последним идёт один из образцов,
+     * оканчивающихся в состоянии {@code state}.
+     */
+    private double bestMatch(int state, int end, double[] bits, int[] uppercase, int[] substituted) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int s = pattern[state] >= 0 ? state : outputLink[state]; s != 0; s = outputLink[s]) {
+            int id = pattern[s];
+            int start = end - patternLength[id];
+            int substitutions = substituted == null ? 0 : substituted[end] - substituted[start];
+            if (substituted != null && substitutions == 0) {
+                continue; // без замен этот образец уже учтён в исходном пароле
+            }
+            double cost = bits[start] + patternBits[id]
+                    + uppercaseBits(patternLength[id], uppercase[end] - uppercase[start], uppercase, start)
+                    + substitutions;
+            best = Math.min(best, cost);
+        }
+        return best;
+    }
+
+    /**
+     * Поправка на заглавные буквы: все строчные — 0 бит, только первая или все заглавные — 1 бит,
+     * иначе log2 числа вариантов расстановки заглавных.
+     */
+    private static double uppercaseBits(int length, int upper, int[] uppercase, int start) {
+        if (upper == 0) {
+            return 0;
+        }
+        int lower = length - upper;
+        if (lower == 0 || (upper == 1 && uppercase[start + 1] - uppercase[start] == 1)) {
+            return 1;
+        }
+        double variants = 0;
+        double binomial = 1;
+        for (int k = 1; k <= Math.min(upper, lower); k++) {
+            binomial = binomial * (length - k + 1) / k;
+            variants += binomial;
+        }
+        return log2(variants);
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    /**
+     * Результат проверки пароля вместе с оценкой его сложности.
+     */
+    public static final class Result extends PasswordValidator.ValidationResult {
+        private final int score;
+        private final double guessesLog10;
+
+        private Result(PasswordValidator.ValidationResult validation, int score, double guessesLog10) {
+            super(validation);
+            this.score = score;
+            this.guessesLog10 = guessesLog10;
+        }
+
+        /** Оценка сложности от 0 до 4 */
+        public int getScore() {
+            return score;
+        }
+
+        /** Десятичный логарифм числа попыток подбора */
+        public double getGuessesLog10() {
+            return guessesLog10;
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + ". Strength: " + score + "/4";
+        }
+    }
+
+    private static final class Scratch {
+        double[] bits = new double[0];
+        int[] uppercase = new int[0];
+        int[] substituted = new int[0];
+
+        Scratch ensureCapacity(int capacity) {
+            if (bits.length < capacity) {
+                int size = Math.max(capacity, 2 * bits.length);
+                bits = new double[size];
+                uppercase = new int[size];
+                substituted = new int[size];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Построение автомата: сначала бор, затем суффиксные ссылки и достройка переходов обходом в ширину.
+     */
+    private static final class Builder {
+        private int[] next = new int[256 * ALPHABET];
+        private int[] pattern = new int[256];
+        private int states = 1;
+        private int[] lengths = new int[64];
+        private float[] costs = new float[64];
+        private int patterns;
+
+        Builder() {
+            Arrays.fill(next, -1);
+            Arrays.fill(pattern, -1);
+        }
+
+        void add(String word, double bits) {
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char symbol = word.charAt(i);
+                int index = symbol < 128 ? SYMBOL_INDEX[symbol] : -1;
+                if (index < 0) {
+                    return;
+                }
+                int target = next[state * ALPHABET + index];
+                if (target < 0) {
+                    target = newState();
+                    next[state * ALPHABET + index] = target;
+                }
+                state = target;
+            }
+            if (state == 0) {
+                return;
+            }
+            int id = pattern[state];
+            if (id >= 0) {
+                costs[id] = (float) Math.min(costs[id], bits); // повтор — оставляем меньший ранг
+                return;
+            }
+            if (patterns == lengths.length) {
+                lengths = Arrays.copyOf(lengths, patterns * 2);
+                costs = Arrays.copyOf(costs, patterns * 2);
+            }
+            lengths[patterns] = word.length();
+            costs[patterns] = (float) bits;
+            pattern[state] = patterns++;
+        }
+
+        private int newState() {
+            if (states == pattern.length) {
+                int size = states * 2;
+                next = Arrays.copyOf(next, size * ALPHABET);
+                Arrays.fill(next, states * ALPHABET, next.length, -1);
+                pattern = Arrays.copyOf(pattern, size);
+                Arrays.fill(pattern, states, size, -1);
+            }
+            return states++;
+        }
+
+        PasswordStrength build() {
+            int[] transitions = Arrays.copyOf(next, states * ALPHABET);
+            int[] failure = new int[states];
+            int[] outputLink = new int[states];
+            int[] queue = new int[states];
+            int head = 0;
+            int tail = 0;
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[symbol];
+                if (child < 0) {
+                    transitions[symbol] = 0;
+                } else {
+                    queue[tail++] = child;
+                }
+            }
+            while (head < tail) {
+                int state = queue[head++];
+                int fail = failure[state];
+                outputLink[state] = pattern[fail] >= 0 ? fail : outputLink[fail];
+                for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                    int child = transitions[state * ALPHABET + symbol];
+                    int fallback = transitions[fail * ALPHABET + symbol];
+                    if (child < 0) {
+                        transitions[state * ALPHABET + symbol] = fallback;
+                    } else {
+                        failure[child] = fallback;
+                        queue[tail++] = child;
+                    }
+                }
+            }
+            return new PasswordStrength(transitions, Arrays.copyOf(pattern, states), outputLink,
+                    Arrays.copyOf(lengths, patterns), Arrays.copyOf(costs, patterns));
+        }
+    }
+}
@@ -9,27 +9,102 @@ import java.util.List;
  * - содержит строчные, заглавные буквы и цифры
  * - не должен совпадать с именем пользователя
  * - не должен содержать пробельных символов, табуляции и кавычек
+ * Другие наборы правил задаются через {@link PasswordPolicy}.
  */
 public class PasswordValidator {
 
+    /** Пароль короче 8 символов (или null) */
+    public static final int TOO_SHORT = 1;
+    /** В пароле нет цифр */
+    public static final int NO_DIGIT = 1 << 1;
+    /** В пароле нет строчных букв */
+    public static final int NO_LOWERCASE = 1 << 2;
+    /** В пароле нет заглавных букв */
+    public static final int NO_UPPERCASE = 1 << 3;
+    /** Пароль совпадает с именем пользователя */
+    public static final int MATCHES_USERNAME = 1 << 4;
+    /** Пароль содержит пробелы, табуляцию или кавычки */
+    public static final int HAS_SPACES_OR_QUOTES = 1 << 5;
+    /** В пароле нет спецсимволов (только для политик, где они обязательны) */
+    public static final int NO_SPECIAL = 1 << 6;
+    /** В пароле слишком много одинаковых символов подряд */
+    public static final int TOO_MANY_REPEATS = 1 << 7;
+    /** Пароль есть в списке утёкших (только для политик со списком {@link BreachedPasswordBlocklist}) */
+    public static final int BREACHED = 1 << 8;
+    /** Пароль похож на имя пользователя (только для политик с {@link PasswordPolicy.Builder#rejectSimilarToUsername}) */
+    public static final int SIMILAR_TO_USERNAME = 1 << 9;
+
     /**
      * Класс для хранения результата валидации пароля
      */
     public static class ValidationResult {
+        /** Общий результат для валидного пароля */
+        public static final ValidationResult VALID = new ValidationResult(0, new String[0]);
+
         private final boolean isValid;
-        private final List<String> errors;
+        private final int violations;
+        private final List<String> errors; // null — тексты строятся по битам нарушений
+        private final String[] messages;   // тексты ошибок в порядке битов нарушений
 
         public ValidationResult(boolean isValid, List<String> errors) {
             this.isValid = isValid;
             this.errors = errors;
+            this.messages = PasswordPolicy.DEFAULT.getMessages();
+            int mask = 0;
+            for (int i = 0; i < messages.length; i++) {
+                if (errors.contains(messages[i])) {
+                    mask |= 1 << i;
+                }
+            }
+            this.violations = mask;
+        }
+
+        ValidationResult(int violations, String[] messages) {
+            this.isValid = violations == 0;
+            this.violations = violations;
+            this.errors = null;
+            this.messages = messages;
+        }
+
+        /**
+         * Копирует результат проверки (для расширений, добавляющих к нему данные).
+         */
+        ValidationResult(ValidationResult other) {
+            this.isValid = other.isValid;
+            this.violations = other.violations;
+            this.errors = other.errors;
+            this.messages = other.messages;
         }
 
         public boolean isValid() {
             return isValid;
         }
 
+        /**
+         * Возвращает набор нарушений в виде битовой маски ({@link #TOO_SHORT}, {@link #NO_DIGIT} и т.д.).
+         */
+        public int getViolations() {
+            return violations;
+        }
+
+        /**
+         * Проверяет, есть ли среди нарушений указанное.
+         */
+        public boolean has(int violation) {
+            return (violations & violation) != 0;
+        }
+
         public List<String> getErrors() {
-            return new ArrayList<>(errors); // Возвращаем копию для безопасности
+            if (errors != null) {
+                return new ArrayList<>(errors); // Возвращаем копию для безопасности
+            }
+            List<String> result = new ArrayList<>(Integer.bitCount(violations));
+            for (int i = 0; i < messages.length; i++) {
+                if ((violations & (1 << i)) != 0) {
+                    result.add(messages[i]);
+                }
+            }
+            return result;
         }
 
         @Override
@@ -37,7 +112,7 @@ public class PasswordValidator {
             if (isValid) {
                 return "Password is valid";
             } else {
-                return "Password is invalid. Errors: " + String.join(", ", errors);
+                return "Password is invalid. Errors: " + String.join(", ", getErrors());
             }
         }
     }
@@ -49,80 +124,60 @@ public class PasswordValidator {
      * @return возвращает true, если пароль отвечает всем требованиям
      */
     public static boolean isValidPassword(String password, String userName) {
-        return validatePassword(password, userName).isValid();
+        return PasswordPolicy.DEFAULT.check(password, userName) == 0;
     }
 
     /**
      * Проверка валидности пароля с детальной информацией об ошибках
      * @param password пароль
      * @param userName имя пользователя
-     * @return объект ValidationResult с результатом проверки
+     * @return объект ValidationResult с результатом проверки (общий для одинаковых наборов ошибок)
      */
     public static ValidationResult validatePassword(String password, String userName) {
-        List<String> errors = new ArrayList<>();
-
-        if (password == null || password.length() < 8) {
-            errors.add("Password must be at least 8 characters long");
-        }
-
-        if (password != null && !hasDigits(password)) {
-            errors.add("Password must contain at least one digit");
-        }
-
-        if (password != null && !hasLowercase(password)) {
-            errors.add("Password must contain at least one lowercase letter");
-        }
-
-        if (password != null && !hasUppercase(password)) {
-            errors.add("Password must contain at least one uppercase letter");
-        }
-
-        if (password != null && userName != null && password.equals(userName)) {
-            errors.add("Password must not match the username");
-        }
-        
-        if (password != null && hasSpacesOrQuotes(password)) {
-            errors.add("Password must not contain spaces, tabs, or quotes");
-        }
-
-        boolean isValid = errors.isEmpty();
-        return new ValidationResult(isValid, errors);
+        return PasswordPolicy.DEFAULT.validate(password, userName);
     }
 
-    private static boolean hasDigits(String text) {
-        for (char symbol : text.toCharArray()) {
-            if (Character.isDigit(symbol)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Проверка пароля, заданного последовательностью символов (например, {@link java.nio.CharBuffer}),
+     * без копирования в строку. Пароли в {@code char[]} и в байтах UTF-8 проверяются через
+     * {@link PasswordPolicy#validate(char[], CharSequence)} и
+     * {@link PasswordPolicy#validate(java.nio.ByteBuffer, CharSequence)}.
+     * @param password пароль
+     * @param userName имя пользователя
+     * @return объект ValidationResult с результатом проверки
+     */
+    public static ValidationResult validatePassword(CharSequence password, CharSequence userName) {
+        return PasswordPolicy.DEFAULT.validate(password, userName);
     }
 
-    private static boolean hasLowercase(String text) {
-        for (char symbol : text.toCharArray()) {
-            if (Character.isLowerCase(symbol)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Проверка пароля с оценкой его сложности по встроенному словарю
+     * @param password пароль
+     * @param userName имя пользователя
+     * @return результат проверки с оценкой от 0 до 4 ({@link PasswordStrength.Result#getScore()})
+     */
+    public static PasswordStrength.Result evaluatePassword(String password, String userName) {
+        return PasswordStrength.getDefault().evaluate(password, userName);
     }
 
-    private static boolean hasUppercase(String text) {
-        for (char symbol : text.toCharArray()) {
-            if (Character.isUpperCase(symbol)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Проверка пароля по заданной политике
+     * @param password пароль
+     * @param userName имя пользователя
+     * @param policy   политика сложности пароля
+     * @return объект ValidationResult с результатом проверки
+     */
+    public static ValidationResult validatePassword(String password, String userName, PasswordPolicy policy) {
+        return policy.validate(password, userName);
     }
 
-    private static boolean hasSpacesOrQuotes(String text) {
-        for (char symbol : text.toCharArray()) {
-            if (Character.isSpaceChar(symbol)
-                    || symbol == '\t' || symbol == '"' || symbol == '\'') {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Проверяет пароль за один проход по символам без создания объектов.
+     * @param password пароль
+     * @param userName имя пользователя
+     * @return битовая маска нарушений, 0 — пароль валиден
+     */
+    public static int checkPassword(String password, String userName) {
+        return PasswordPolicy.DEFAULT.check(password, userName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package ru.teamscore.passwordvalidator;
+
+/**
+ * Проверка сходства пароля с именем пользователя без учёта регистра:
+ * пароль содержит имя (если оно не короче {@value #MIN_CONTAINED_LENGTH} символов)
+ * или отличается от него не больше чем на {@code maxDistance} правок (расстояние Левенштейна).
+ * <p>
+ * Расстояние считается только в полосе шириной {@code 2 * maxDistance + 1} вокруг диагонали
+ * с выходом, как только все значения строки превысили порог, — O(n·k) вместо O(n·m).
+ * Строка таблицы и буфер символов свои у каждого потока, поэтому проверка не создаёт объектов.
+ */
+final class UsernameSimilarity {
+    /** Более короткие имена ищутся в пароле только как совпадение по расстоянию. */
+    static final int MIN_CONTAINED_LENGTH = 3;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private UsernameSimilarity() {
+    }
+
+    static boolean isSimilar(CharSequence password, CharSequence userName, int maxDistance) {
+        if (userName == null || userName.isEmpty()) {
+            return false;
+        }
+        return contains(password, userName) || distance(password, userName, maxDistance) <= maxDistance;
+    }
+
+    /**
+     * То же для пароля в массиве символов (первые {@code length}): массив читается через
+     * представление потока, поэтому обёртка не создаётся. Ссылка на массив после проверки не хранится.
+     */
+    static boolean isSimilar(char[] password, int length, CharSequence userName, int maxDistance) {
+        CharArrayView view = SCRATCH.get().view;
+        view.set(password, length);
+        try {
+            return isSimilar(view, userName, maxDistance);
+        } finally {
+            view.set(null, 0);
+        }
+    }
+
+    /**
+     * Буфер потока для символов пароля, которые не хранятся как {@link CharSequence}
+     * (например, декодированных из UTF-8). После проверки его нужно затереть.
+     */
+    static char[] charBuffer(int capacity) {
+        Scratch scratch = SCRATCH.get();
+        if (scratch.chars.length < capacity) {
+            scratch.chars = new char[Math.max(capacity, scratch.chars.length * 2)];
+        }
+        return scratch.chars;
+    }
+
+    private static boolean contains(CharSequence password, CharSequence userName) {
+        int m = userName.length();
+        if (m < MIN_CONTAINED_LENGTH) {
+            return false;
+        }
+        for (int start = 0; start + m <= password.length(); start++) {
+            int j = 0;
+            while (j < m && sameLetter(password.charAt(start + j), userName.charAt(j))) {
+                j++;
+            }
+            if (j == m) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Расстояние Левенштейна без учёта регистра, если оно не больше {@code limit}; иначе {@code limit + 1}.
+     */
+    static int distance(CharSequence a, CharSequence b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        // расстояние не больше длины более длинной строки, поэтому больший порог ничего не меняет,
+        // а limit + 1 и границы полосы не переполняются
+        limit = Math.min(limit, Math.max(n, m));
+        int over = limit + 1;
+        if (Math.abs(n - m) > limit) {
+            return over;
+        }
+        int[] row = row(m + 1);
+        // row[j] — расстояние между первыми i символами a и первыми j символами b;
+        // ячейки вне полосы |i - j| <= limit считаются равными limit + 1
+        for (int j = 0; j <= m; j++) {
+            row[j] = Math.min(j, over);
+        }
+        for (int i = 1; i <= n; i++) {
+            int low = Math.max(1, i - limit);
+            int high = Math.min(m, i + limit);
+            int diagonal = row[low - 1];
+            row[low - 1] = low == 1 ? Math.min(i, over) : over;
+            int rowMin = row[low - 1];
+            char symbol = a.charAt(i - 1);
+            for (int j = low; j <= high; j++) {
+                int up = row[j];
+                int value = Math.min(Math.min(up, row[j - 1]) + 1,
+                        diagonal + (sameLetter(symbol, b.charAt(j - 1)) ? 0 : 1));
+                diagonal = up;
+                row[j] = Math.min(value, over);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (rowMin > limit) {
+                return over;
+            }
+        }
+        return row[m];
+    }
+
+    private static boolean sameLetter(char a, char b) {
+        return a == b || Character.toLowerCase(a) == Character.toLowerCase(b);
+    }
+
+    private static int[] row(int length) {
+        Scratch scratch = SCRATCH.get();
+        if (scratch.row.length < length) {
+            scratch.row = new int[Math.max(length, scratch.row.length * 2)];
+        }
+        return scratch.row;
+    }
+
+    private static final class Scratch {
+        int[] row = new int[32];
+        char[] chars = new char[32];
+        final CharArrayView view = new CharArrayView();
+    }
+
+    /**
+     * Изменяемое представление начала массива символов как {@link CharSequence}.
+     */
+    private static final class CharArrayView implements CharSequence {
+        private char[] chars;
+        private int length;
+
+        void set(char[] chars, int length) {
+            this.chars = chars;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.teamscore.passwordvalidator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Посимвольное декодирование UTF-8 без создания объектов. Им пользуются и проверка пароля,
+ * и хеширование для списка утечек, чтобы оба видели одни и те же символы. Некорректные
+ * последовательности дают U+FFFD, как при создании строки из байтов.
+ */
+final class Utf8 {
+    private Utf8() {
+    }
+
+    /**
+     * Декодирует символ, начинающийся с байта {@code index} (абсолютный индекс меньше {@code limit}).
+     *
+     * @return код символа в старших 32 битах и индекс следующего символа в младших
+     */
+    static long decode(ByteBuffer bytes, int index, int limit) {
+        int lead = bytes.get(index) & 0xFF;
+        int codePoint;
+        int size;
+        if (lead < 0x80) {
+            codePoint = lead;
+            size = 1;
+        } else if (lead >= 0xC2 && lead <= 0xDF) {
+            codePoint = lead & 0x1F;
+            size = 2;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            codePoint = lead & 0x0F;
+            size = 3;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            codePoint = lead & 0x07;
+            size = 4;
+        } else {
+            codePoint = 0xFFFD;
+            size = 1;
+        }
+        int next = index + 1;
+        for (int k = 1; k < size; k++, next++) {
+            int continuation = next < limit ? bytes.get(next) & 0xFF : 0;
+            if (!isContinuation(lead, k, continuation)) {
+                // некорректная последовательность — её начало заменяется одним U+FFFD
+                codePoint = 0xFFFD;
+                break;
+            }
+            codePoint = (codePoint << 6) | (continuation & 0x3F);
+        }
+        if (size == 3 && Character.isSurrogate((char) codePoint)) {
+            codePoint = 0xFFFD; // закодированный суррогат, как и в String, заменяется целиком
+        }
+        return ((long) codePoint << 32) | next;
+    }
+
+    /** Код символа из результата {@link #decode} */
+    static int codePoint(long decoded) {
+        return (int) (decoded >>> 32);
+    }
+
+    /** Индекс следующего символа из результата {@link #decode} */
+    static int next(long decoded) {
+        return (int) decoded;
+    }
+
+    /**
+     * Проверяет байт продолжения UTF-8 с номером {@code index}. Для второго байта учитываются
+     * ограничения, исключающие избыточную запись и значения больше U+10FFFF.
+     */
+    private static boolean isContinuation(int lead, int index, int value) {
+        if ((value & 0xC0) != 0x80) {
+            return false;
+        }
+        if (index > 1) {
+            return true;
+        }
+        return switch (lead) {
+            case 0xE0 -> value >= 0xA0;
+            case 0xF0 -> value >= 0x90;
+            case 0xF4 -> value <= 0x8F;
+            default -> true;
+        };
+    }
+}
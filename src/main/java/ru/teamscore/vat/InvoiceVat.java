@@ -0,0 +1,202 @@
+package ru.teamscore.vat;
+
+import java.math.BigInteger;
+
+/**
+ * НДС счёта, рассчитанный один раз по итоговой сумме и распределённый по строкам
+ * методом наибольших остатков. В отличие от построчного округления ({@link VatBatch}),
+ * сумма НДС строк всегда точно равна НДС итога.
+ * <p>
+ * Доля строки равна НДС итога * сумма строки / итог. Каждая строка получает целую часть доли,
+ * а оставшиеся копейки достаются строкам с наибольшими дробными остатками
+ * (при равных остатках — строкам с меньшим номером).
+ */
+public final class InvoiceVat {
+    private final long[] priceWithoutVAT;
+    private final long[] vatInReceipt;
+    private final long[] fullPriceWithVAT;
+    private final long totalFullPriceWithVAT;
+    private final long totalPriceWithoutVAT;
+    private final long totalVAT;
+
+    private InvoiceVat(long[] net, long[] vat, long[] full, long totalFull, long totalNet, long totalVAT) {
+        this.priceWithoutVAT = net;
+        this.vatInReceipt = vat;
+        this.fullPriceWithVAT = full;
+        this.totalFullPriceWithVAT = totalFull;
+        this.totalPriceWithoutVAT = totalNet;
+        this.totalVAT = totalVAT;
+    }
+
+    /**
+     * Рассчитывает НДС счёта по полным стоимостям строк (включая НДС) по стандартной ставке.
+     *
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static InvoiceVat fromFullPrices(long[] fullKopecks) {
+        return fromFullPrices(fullKopecks, VatRate.STANDARD);
+    }
+
+    /**
+     * Рассчитывает НДС счёта по полным стоимостям строк (включая НДС).
+     *
+     * @param fullKopecks полные стоимости строк в копейках (каждая ≥ 0)
+     * @param rate        ставка НДС
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static InvoiceVat fromFullPrices(long[] fullKopecks, VatRate rate) {
+        long[] full = fullKopecks.clone();
+        long total = sum(full);
+        long totalVAT = VAT.computeFromFullKopecks(total, rate);
+        long[] vat = distribute(totalVAT, full, total);
+        long[] net = new long[full.length];
+        for (int i = 0; i < full.length; i++) {
+            net[i] = full[i] - vat[i];
+        }
+        return new InvoiceVat(net, vat, full, total, total - totalVAT, totalVAT);
+    }
+
+    /**
+     * Рассчитывает НДС счёта по базовым стоимостям строк (без НДС) по стандартной ставке.
+     *
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static InvoiceVat fromPricesWithoutVAT(long[] netKopecks) {
+        return fromPricesWithoutVAT(netKopecks, VatRate.STANDARD);
+    }
+
+    /**
+     * Рассчитывает НДС счёта по базовым стоимостям строк (без НДС).
+     *
+     * @param netKopecks базовые стоимости строк в копейках (каждая ≥ 0)
+     * @param rate       ставка НДС
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static InvoiceVat fromPricesWithoutVAT(long[] netKopecks, VatRate rate) {
+        long[] net = netKopecks.clone();
+        long total = sum(net);
+        long totalVAT = VAT.computeFromKopecksWithoutVAT(total, rate);
+        long[] vat = distribute(totalVAT, net, total);
+        long[] full = new long[net.length];
+        for (int i = 0; i < net.length; i++) {
+            full[i] = net[i] + vat[i];
+        }
+        return new InvoiceVat(net, vat, full, Math.addExact(total, totalVAT), total, totalVAT);
+    }
+
+    private static long sum(long[] kopecks) {
+        long total = 0;
+        for (long k : kopecks) {
+            if (k < 0) {
+                throw new IllegalArgumentException("Сумма не может быть отрицательной: " + k);
+            }
+            total = Math.addExact(total, k);
+        }
+        return total;
+    }
+
+    /**
+     * Распределяет {@code totalVAT} пропорционально {@code weights} методом наибольших остатков.
+     */
+    private static long[] distribute(long totalVAT, long[] weights, long totalWeight) {
+        int size = weights.length;
+        long[] shares = new long[size];
+        if (totalVAT == 0) {
+            return shares;
+        }
+        long[] remainders = new long[size];
+        long distributed = 0;
+        for (int i = 0; i < size; i++) {
+            long high = Math.multiplyHigh(totalVAT, weights[i]);
+            long low = totalVAT * weights[i];
+            if (high == 0 && low >= 0) {
+                shares[i] = low / totalWeight;
+                remainders[i] = low % totalWeight;
+            } else {
+                // произведение не помещается в long — редкий случай для огромных сумм
+                BigInteger[] division = BigInteger.valueOf(totalVAT).multiply(BigInteger.valueOf(weights[i]))
+                        .divideAndRemainder(BigInteger.valueOf(totalWeight));
+                shares[i] = division[0].longValueExact();
+                remainders[i] = division[1].longValueExact();
+            }
+            distributed += shares[i];
+        }
+
+        int extra = (int) (totalVAT - distributed); // меньше количества строк
+        if (extra == 0) {
+            return shares;
+        }
+        long threshold = kthLargest(remainders.clone(), extra);
+        int aboveThreshold = 0;
+        for (long remainder : remainders) {
+            if (remainder > threshold) {
+                aboveThreshold++;
+            }
+        }
+        int atThreshold = extra - aboveThreshold;
+        for (int i = 0; i < size; i++) {
+            if (remainders[i] > threshold) {
+                shares[i]++;
+            } else if (remainders[i] == threshold && atThreshold > 0) {
+                shares[i]++;
+                atThreshold--;
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * Находит k-й по убыванию элемент массива (k ≥ 1) за линейное в среднем время.
+     * Массив переупорядочивается.
+     */
+    private static long kthLargest(long[] values, int k) {
+        int target = values.length - k;
+        int left = 0;
+        int right = values.length - 1;
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            long pivot = medianOfThree(values[left], values[middle], values[right]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    long tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return values[target];
+            }
+        }
+        return values[target];
+    }
+
+    private static long medianOfThree(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    public int size() { return vatInReceipt.length; }
+    public long getFullPriceWithVAT(int line) { return fullPriceWithVAT[line]; }
+    public long getPriceWithoutVAT(int line) { return priceWithoutVAT[line]; }
+    public long getVATInReceipt(int line) { return vatInReceipt[line]; }
+
+    public long getTotalFullPriceWithVAT() { return totalFullPriceWithVAT; }
+    public long getTotalPriceWithoutVAT() { return totalPriceWithoutVAT; }
+    public long getTotalVAT() { return totalVAT; }
+
+    /**
+     * Возвращает НДС счёта для декларации (в целых рублях).
+     */
+    public long getVATForDeclaration() {
+        return VAT.roundKopecksToRublesForDeclaration(totalVAT);
+    }
+}
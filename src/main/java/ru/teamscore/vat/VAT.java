@@ -4,8 +4,7 @@ import java.math.RoundingMode;
 
 public final class VAT {
 
-    private static final BigDecimal VAT_RATE = BigDecimal.valueOf(20, 2); // 20% → 0.20
-    private static final BigDecimal VAT_INCLUSIVE_FACTOR = BigDecimal.ONE.add(VAT_RATE); // 1.20
+    private static final VatRate VAT_RATE = VatRate.STANDARD; // 20% → 0.20, множитель 1.20
     private final BigDecimal fullPriceWithVAT;   // полная сумма с НДС (копейки сохраняются)
     private final BigDecimal priceWithoutVAT;    // базовая сумма без НДС (копейки сохраняются)
     private final BigDecimal vatInReceipt;       // НДС в чеке/счете — с копейками
@@ -35,10 +34,22 @@ public final class VAT {
      * Создаёт объект НДС по полной стоимости (включая НДС), как указано в чеке/счете-фактуре.
      */
     public static VAT fromFullPrice(BigDecimal fullPriceWithVAT) {
+        return fromFullPrice(fullPriceWithVAT, VAT_RATE);
+    }
+
+    /**
+     * Создаёт объект НДС по полной стоимости (включая НДС) для указанной ставки.
+     *
+     * @param fullPriceWithVAT полная стоимость с НДС (≥ 0)
+     * @param rate             ставка НДС
+     * @return новый объект {@link VAT}
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static VAT fromFullPrice(BigDecimal fullPriceWithVAT, VatRate rate) {
         validateNonNegative(fullPriceWithVAT);
         BigDecimal roundedFull = fullPriceWithVAT.setScale(2, RoundingMode.HALF_UP);
-        BigDecimal vat = roundedFull.multiply(VAT_RATE)
-                .divide(VAT_INCLUSIVE_FACTOR, 2, RoundingMode.HALF_UP);
+        BigDecimal vat = roundedFull.multiply(rate.getRate())
+                .divide(rate.getInclusiveFactor(), 2, RoundingMode.HALF_UP);
         BigDecimal net = roundedFull.subtract(vat).setScale(2, RoundingMode.HALF_UP);
         return new VAT(roundedFull, net, vat);
     }
@@ -61,13 +72,152 @@ public final class VAT {
      * Создаёт объект НДС по базовой стоимости (без НДС).
      */
     public static VAT fromPriceWithoutVAT(BigDecimal priceWithoutVAT) {
+        return fromPriceWithoutVAT(priceWithoutVAT, VAT_RATE);
+    }
+
+    /**
+     * Создаёт объект НДС по базовой стоимости (без НДС) для указанной ставки.
+     *
+     * @param priceWithoutVAT базовая стоимость без НДС (≥ 0)
+     * @param rate            ставка НДС
+     * @return новый объект {@link VAT}
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static VAT fromPriceWithoutVAT(BigDecimal priceWithoutVAT, VatRate rate) {
         validateNonNegative(priceWithoutVAT);
         BigDecimal roundedNet = priceWithoutVAT.setScale(2, RoundingMode.HALF_UP);
-        BigDecimal vat = roundedNet.multiply(VAT_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal vat = roundedNet.multiply(rate.getRate()).setScale(2, RoundingMode.HALF_UP);
         BigDecimal gross = roundedNet.add(vat).setScale(2, RoundingMode.HALF_UP);
         return new VAT(gross, roundedNet, vat);
     }
 
+    /**
+     * Создаёт объект НДС по полной стоимости (включая НДС), заданной в копейках.
+     *
+     * @param fullKopecks полная стоимость с НДС в копейках (≥ 0)
+     * @return новый объект {@link VAT}
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static VAT fromFullKopecks(long fullKopecks) {
+        return fromFullKopecks(fullKopecks, VAT_RATE);
+    }
+
+    /**
+     * Создаёт объект НДС по полной стоимости в копейках для указанной ставки.
+     *
+     * @param fullKopecks полная стоимость с НДС в копейках (≥ 0)
+     * @param rate        ставка НДС
+     * @return новый объект {@link VAT}
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static VAT fromFullKopecks(long fullKopecks, VatRate rate) {
+        long vat = computeFromFullKopecks(fullKopecks, rate);
+        return new VAT(BigDecimal.valueOf(fullKopecks, 2),
+                BigDecimal.valueOf(fullKopecks - vat, 2),
+                BigDecimal.valueOf(vat, 2));
+    }
+
+    /**
+     * Создаёт объект НДС по базовой стоимости (без НДС), заданной в копейках.
+     *
+     * @param netKopecks базовая стоимость без НДС в копейках (≥ 0)
+     * @return новый объект {@link VAT}
+     * @throws IllegalArgumentException если сумма отрицательна
+     * @throws ArithmeticException      если полная стоимость не помещается в long
+     */
+    public static VAT fromKopecksWithoutVAT(long netKopecks) {
+        return fromKopecksWithoutVAT(netKopecks, VAT_RATE);
+    }
+
+    /**
+     * Создаёт объект НДС по базовой стоимости в копейках для указанной ставки.
+     *
+     * @param netKopecks базовая стоимость без НДС в копейках (≥ 0)
+     * @param rate       ставка НДС
+     * @return новый объект {@link VAT}
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static VAT fromKopecksWithoutVAT(long netKopecks, VatRate rate) {
+        long vat = computeFromKopecksWithoutVAT(netKopecks, rate);
+        return new VAT(BigDecimal.valueOf(Math.addExact(netKopecks, vat), 2),
+                BigDecimal.valueOf(netKopecks, 2),
+                BigDecimal.valueOf(vat, 2));
+    }
+
+    /**
+     * Вычисляет НДС в копейках по полной стоимости в копейках без создания объектов.
+     * Результат совпадает с {@link #fromFullPrice(BigDecimal)}:
+     * НДС = full * 20 / 120 = full / 6, округление HALF_UP до копейки.
+     * Сумма без НДС равна {@code fullKopecks - НДС}.
+     *
+     * @param fullKopecks полная стоимость с НДС в копейках (≥ 0)
+     * @return НДС в копейках
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static long computeFromFullKopecks(long fullKopecks) {
+        return computeFromFullKopecks(fullKopecks, VAT_RATE);
+    }
+
+    /**
+     * Вычисляет НДС в копейках по полной стоимости для указанной ставки без создания объектов.
+     * Результат совпадает с {@link #fromFullPrice(BigDecimal, VatRate)}.
+     *
+     * @param fullKopecks полная стоимость с НДС в копейках (≥ 0)
+     * @param rate        ставка НДС
+     * @return НДС в копейках
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static long computeFromFullKopecks(long fullKopecks, VatRate rate) {
+        validateNonNegative(fullKopecks);
+        return rate.extractKopecks(fullKopecks);
+    }
+
+    /**
+     * Вычисляет НДС в копейках по базовой стоимости в копейках без создания объектов.
+     * Результат совпадает с {@link #fromPriceWithoutVAT(BigDecimal)}:
+     * НДС = net * 0.20 = net / 5, округление HALF_UP до копейки.
+     * Полная стоимость равна {@code netKopecks + НДС}.
+     *
+     * @param netKopecks базовая стоимость без НДС в копейках (≥ 0)
+     * @return НДС в копейках
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static long computeFromKopecksWithoutVAT(long netKopecks) {
+        return computeFromKopecksWithoutVAT(netKopecks, VAT_RATE);
+    }
+
+    /**
+     * Вычисляет НДС в копейках по базовой стоимости для указанной ставки без создания объектов.
+     * Результат совпадает с {@link #fromPriceWithoutVAT(BigDecimal, VatRate)}.
+     *
+     * @param netKopecks базовая стоимость без НДС в копейках (≥ 0)
+     * @param rate       ставка НДС
+     * @return НДС в копейках
+     * @throws IllegalArgumentException если сумма отрицательна
+     */
+    public static long computeFromKopecksWithoutVAT(long netKopecks, VatRate rate) {
+        validateNonNegative(netKopecks);
+        return rate.chargeKopecks(netKopecks);
+    }
+
+    /**
+     * Округляет НДС, заданный в копейках, до целых рублей по правилам налоговой декларации
+     * (см. {@link #roundVatToRublesForDeclaration(BigDecimal)}).
+     *
+     * @param vatKopecks НДС в копейках (≥ 0)
+     * @return НДС для декларации в рублях
+     */
+    public static long roundKopecksToRublesForDeclaration(long vatKopecks) {
+        // без ветвлений: остаток ≥ 50 копеек добавляет рубль
+        return vatKopecks / 100 + (vatKopecks % 100 + 50) / 100;
+    }
+
+    private static void validateNonNegative(long kopecks) {
+        if (kopecks < 0) {
+            throw new IllegalArgumentException("Сумма не может быть отрицательной: " + kopecks);
+        }
+    }
+
     private static void validateNonNegative(BigDecimal amount) {
         if (amount.signum() < 0) {
             throw new IllegalArgumentException("Сумма не может быть отрицательной: " + amount);
@@ -87,9 +237,7 @@ public final class VAT {
     private static int roundVatToRublesForDeclaration(BigDecimal vatAmount) {
         // Переводим в копейки и работаем с целыми числами — надёжно
         long totalKopecks = vatAmount.multiply(BigDecimal.valueOf(100)).longValue();
-        long rubles = totalKopecks / 100;
-        long kopecks = totalKopecks % 100;
-        return (kopecks < 50) ? (int) rubles : (int) rubles + 1;
+        return (int) roundKopecksToRublesForDeclaration(totalKopecks);
     }
 
     public BigDecimal getFullPriceWithVAT() { return fullPriceWithVAT; }
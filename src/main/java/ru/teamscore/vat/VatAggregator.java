@@ -0,0 +1,139 @@
+package ru.teamscore.vat;
+
+import java.nio.LongBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.LongStream;
+
+/**
+ * Параллельное суммирование НДС по большому набору чеков для декларации.
+ * Набор делится на части, которые обрабатываются в {@link ForkJoinPool};
+ * частичные итоги складываются точно, поэтому результат одинаков при любой параллельности.
+ */
+public final class VatAggregator {
+    /** Размер части, которая считается в одном потоке без дальнейшего деления. */
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public VatAggregator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public VatAggregator(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param pool      пул потоков для вычислений
+     * @param chunkSize минимальный размер части набора (> 0)
+     */
+    public VatAggregator(ForkJoinPool pool, int chunkSize) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Пул потоков не может быть null");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Размер части должен быть положительным: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Суммирует чеки, заданные полной стоимостью (включая НДС) в копейках.
+     *
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public VatTotals sumFullPrices(long[] fullKopecks) {
+        return pool.invoke(new SumTask(fullKopecks, null, true, 0, fullKopecks.length, chunkSize));
+    }
+
+    /**
+     * Суммирует чеки, заданные базовой стоимостью (без НДС) в копейках.
+     *
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public VatTotals sumPricesWithoutVAT(long[] netKopecks) {
+        return pool.invoke(new SumTask(netKopecks, null, false, 0, netKopecks.length, chunkSize));
+    }
+
+    /**
+     * Суммирует полные стоимости из буфера (например, отображённого в память файла)
+     * от текущей позиции до предела. Позиция буфера не изменяется.
+     */
+    public VatTotals sumFullPrices(LongBuffer fullKopecks) {
+        return pool.invoke(new SumTask(null, fullKopecks, true,
+                fullKopecks.position(), fullKopecks.limit(), chunkSize));
+    }
+
+    /**
+     * Суммирует базовые стоимости из буфера от текущей позиции до предела.
+     * Позиция буфера не изменяется.
+     */
+    public VatTotals sumPricesWithoutVAT(LongBuffer netKopecks) {
+        return pool.invoke(new SumTask(null, netKopecks, false,
+                netKopecks.position(), netKopecks.limit(), chunkSize));
+    }
+
+    /**
+     * Суммирует полные стоимости из потока. Параллельность определяется самим потоком
+     * ({@link LongStream#parallel()}).
+     */
+    public static VatTotals sumFullPrices(LongStream fullKopecks) {
+        return fullKopecks.collect(VatTotals::new, VatTotals::addFullPrice, VatTotals::combine);
+    }
+
+    /**
+     * Суммирует базовые стоимости из потока. Параллельность определяется самим потоком.
+     */
+    public static VatTotals sumPricesWithoutVAT(LongStream netKopecks) {
+        return netKopecks.collect(VatTotals::new, VatTotals::addPriceWithoutVAT, VatTotals::combine);
+    }
+
+    @SuppressWarnings("serial")  // задача не сериализуется
+    private static final class SumTask extends RecursiveTask<VatTotals> {
+        private final long[] array;
+        private final LongBuffer buffer;
+        private final boolean fromFullPrice;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        SumTask(long[] array, LongBuffer buffer, boolean fromFullPrice, int from, int to, int chunkSize) {
+            this.array = array;
+            this.buffer = buffer;
+            this.fromFullPrice = fromFullPrice;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected VatTotals compute() {
+            if (to - from <= chunkSize) {
+                return sumChunk();
+            }
+            int middle = (from + to) >>> 1;
+            SumTask left = new SumTask(array, buffer, fromFullPrice, from, middle, chunkSize);
+            SumTask right = new SumTask(array, buffer, fromFullPrice, middle, to, chunkSize);
+            left.fork();
+            VatTotals totals = right.compute();
+            totals.combine(left.join());
+            return totals;
+        }
+
+        private VatTotals sumChunk() {
+            VatTotals totals = new VatTotals();
+            for (int i = from; i < to; i++) {
+                long amount = array != null ? array[i] : buffer.get(i);
+                if (fromFullPrice) {
+                    totals.addFullPrice(amount);
+                } else {
+                    totals.addPriceWithoutVAT(amount);
+                }
+            }
+            return totals;
+        }
+    }
+}
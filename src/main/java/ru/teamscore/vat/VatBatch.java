@@ -0,0 +1,232 @@
+package ru.teamscore.vat;
+
+import java.math.BigDecimal;
+
+/**
+ * Пакетный расчёт НДС по массиву сумм в копейках.
+ * Результат хранится в параллельных колонках {@code long[]} (без НДС, НДС, с НДС),
+ * поэтому на строку приходится 24 байта вместо отдельного объекта {@link VAT}.
+ * Правила округления совпадают с {@link VAT#fromFullPrice}, {@link VAT#fromPriceWithoutVAT}
+ * и округлением НДС для декларации.
+ * <p>
+ * Если при запуске подключён модуль {@code jdk.incubator.vector}
+ * ({@code --add-modules jdk.incubator.vector}), строки обрабатываются SIMD-ядром
+ * {@link VatVectorKernel}; иначе используется обычный скалярный цикл.
+ */
+public final class VatBatch {
+    private static final boolean VECTOR_KERNEL_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final long[] priceWithoutVAT;
+    private final long[] vatInReceipt;
+    private final long[] fullPriceWithVAT;
+    private final long vatForDeclaration;
+
+    private VatBatch(long[] net, long[] vat, long[] full, long vatForDeclaration) {
+        this.priceWithoutVAT = net;
+        this.vatInReceipt = vat;
+        this.fullPriceWithVAT = full;
+        this.vatForDeclaration = vatForDeclaration;
+    }
+
+    /**
+     * Рассчитывает НДС для каждой полной стоимости (включая НДС).
+     *
+     * @param fullKopecks полные стоимости с НДС в копейках (каждая ≥ 0)
+     * @return колонки с результатами расчёта
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static VatBatch fromFullPrices(long[] fullKopecks) {
+        return fromFullPrices(fullKopecks, VatRate.STANDARD);
+    }
+
+    /**
+     * Рассчитывает НДС по одной ставке для каждой полной стоимости (включая НДС).
+     *
+     * @param fullKopecks полные стоимости с НДС в копейках (каждая ≥ 0)
+     * @param rate        ставка НДС для всех строк
+     * @return колонки с результатами расчёта
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static VatBatch fromFullPrices(long[] fullKopecks, VatRate rate) {
+        long max = validateNonNegative(fullKopecks);
+        int size = fullKopecks.length;
+        long[] net = new long[size];
+        long[] vat = new long[size];
+        long[] full = fullKopecks.clone();
+        if (useVectorKernel(max)) {
+            return new VatBatch(net, vat, full, VatVectorKernel.extractFromFull(full, net, vat, rate));
+        }
+        long declaration = 0;
+        for (int i = 0; i < size; i++) {
+            long f = full[i];
+            long v = rate.extractKopecks(f);
+            vat[i] = v;
+            net[i] = f - v;
+            declaration += VAT.roundKopecksToRublesForDeclaration(v);
+        }
+        return new VatBatch(net, vat, full, declaration);
+    }
+
+    /**
+     * Рассчитывает НДС для каждой базовой стоимости (без НДС).
+     *
+     * @param netKopecks базовые стоимости без НДС в копейках (каждая ≥ 0)
+     * @return колонки с результатами расчёта
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static VatBatch fromPricesWithoutVAT(long[] netKopecks) {
+        return fromPricesWithoutVAT(netKopecks, VatRate.STANDARD);
+    }
+
+    /**
+     * Рассчитывает НДС по одной ставке для каждой базовой стоимости (без НДС).
+     *
+     * @param netKopecks базовые стоимости без НДС в копейках (каждая ≥ 0)
+     * @param rate       ставка НДС для всех строк
+     * @return колонки с результатами расчёта
+     * @throws IllegalArgumentException если хотя бы одна сумма отрицательна
+     */
+    public static VatBatch fromPricesWithoutVAT(long[] netKopecks, VatRate rate) {
+        long max = validateNonNegative(netKopecks);
+        int size = netKopecks.length;
+        long[] net = netKopecks.clone();
+        long[] vat = new long[size];
+        long[] full = new long[size];
+        if (useVectorKernel(max)) {
+            return new VatBatch(net, vat, full, VatVectorKernel.chargeOnNet(net, vat, full, rate));
+        }
+        long declaration = 0;
+        for (int i = 0; i < size; i++) {
+            long n = net[i];
+            long v = rate.chargeKopecks(n);
+            vat[i] = v;
+            full[i] = Math.addExact(n, v);
+            declaration += VAT.roundKopecksToRublesForDeclaration(v);
+        }
+        return new VatBatch(net, vat, full, declaration);
+    }
+
+    /**
+     * Рассчитывает НДС для полных стоимостей с разными ставками.
+     * Ставка строки берётся из параллельного массива {@code rates}; таблицы ставок
+     * рассчитаны заранее, поэтому смешанный пакет считается так же, как пакет с одной ставкой.
+     *
+     * @param fullKopecks полные стоимости с НДС в копейках (каждая ≥ 0)
+     * @param rates       ставки НДС строк
+     * @throws IllegalArgumentException если длины массивов различаются или сумма отрицательна
+     */
+    public static VatBatch fromFullPrices(long[] fullKopecks, VatRate[] rates) {
+        validateSameLength(fullKopecks, rates);
+        validateNonNegative(fullKopecks);
+        int size = fullKopecks.length;
+        long[] net = new long[size];
+        long[] vat = new long[size];
+        long[] full = fullKopecks.clone();
+        long declaration = 0;
+        for (int i = 0; i < size; i++) {
+            long f = full[i];
+            long v = rates[i].extractKopecks(f);
+            vat[i] = v;
+            net[i] = f - v;
+            declaration += VAT.roundKopecksToRublesForDeclaration(v);
+        }
+        return new VatBatch(net, vat, full, declaration);
+    }
+
+    /**
+     * Рассчитывает НДС для базовых стоимостей с разными ставками
+     * (ставка строки берётся из параллельного массива {@code rates}).
+     *
+     * @param netKopecks базовые стоимости без НДС в копейках (каждая ≥ 0)
+     * @param rates      ставки НДС строк
+     * @throws IllegalArgumentException если длины массивов различаются или сумма отрицательна
+     */
+    public static VatBatch fromPricesWithoutVAT(long[] netKopecks, VatRate[] rates) {
+        validateSameLength(netKopecks, rates);
+        validateNonNegative(netKopecks);
+        int size = netKopecks.length;
+        long[] net = netKopecks.clone();
+        long[] vat = new long[size];
+        long[] full = new long[size];
+        long declaration = 0;
+        for (int i = 0; i < size; i++) {
+            long n = net[i];
+            long v = rates[i].chargeKopecks(n);
+            vat[i] = v;
+            full[i] = Math.addExact(n, v);
+            declaration += VAT.roundKopecksToRublesForDeclaration(v);
+        }
+        return new VatBatch(net, vat, full, declaration);
+    }
+
+    private static void validateSameLength(long[] kopecks, VatRate[] rates) {
+        if (kopecks.length != rates.length) {
+            throw new IllegalArgumentException("Количество сумм (" + kopecks.length
+                    + ") не совпадает с количеством ставок (" + rates.length + ")");
+        }
+    }
+
+    private static boolean useVectorKernel(long maxKopecks) {
+        return VECTOR_KERNEL_AVAILABLE && maxKopecks < VatVectorKernel.MAX_KOPECKS;
+    }
+
+    /**
+     * Проверяет знак всех сумм отдельным проходом без ветвлений внутри основного цикла.
+     *
+     * @return максимальная сумма в массиве
+     */
+    private static long validateNonNegative(long[] kopecks) {
+        long min = 0;
+        long max = 0;
+        for (long k : kopecks) {
+            min = Math.min(min, k);
+            max = Math.max(max, k);
+        }
+        if (min < 0) {
+            throw new IllegalArgumentException("Сумма не может быть отрицательной: " + min);
+        }
+        return max;
+    }
+
+    public int size() { return vatInReceipt.length; }
+    public long getFullPriceWithVAT(int index) { return fullPriceWithVAT[index]; }
+    public long getPriceWithoutVAT(int index) { return priceWithoutVAT[index]; }
+    public long getVATInReceipt(int index) { return vatInReceipt[index]; }
+
+    /**
+     * Возвращает сумму НДС для декларации по всем строкам пакета (в целых рублях).
+     * Каждая строка округляется так же, как {@link VAT#getVATForDeclaration()}.
+     */
+    public long getVATForDeclaration() { return vatForDeclaration; }
+
+    /**
+     * Создаёт объект {@link VAT} для указанной строки пакета.
+     */
+    public VAT toVAT(int index) {
+        return new VAT(BigDecimal.valueOf(fullPriceWithVAT[index], 2),
+                BigDecimal.valueOf(priceWithoutVAT[index], 2),
+                BigDecimal.valueOf(vatInReceipt[index], 2));
+    }
+
+    /**
+     * Копирует колонку сумм с НДС в переданный массив.
+     */
+    public void copyFullPricesWithVAT(long[] target, int offset) {
+        System.arraycopy(fullPriceWithVAT, 0, target, offset, fullPriceWithVAT.length);
+    }
+
+    /**
+     * Копирует колонку сумм без НДС в переданный массив.
+     */
+    public void copyPricesWithoutVAT(long[] target, int offset) {
+        System.arraycopy(priceWithoutVAT, 0, target, offset, priceWithoutVAT.length);
+    }
+
+    /**
+     * Копирует колонку НДС в чеке в переданный массив.
+     */
+    public void copyVATInReceipt(long[] target, int offset) {
+        System.arraycopy(vatInReceipt, 0, target, offset, vatInReceipt.length);
+    }
+}
@@ -0,0 +1,201 @@
+package ru.teamscore.vat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Необязательный ограниченный кэш объектов {@link VAT} для часто повторяющихся сумм.
+ * {@link VAT} неизменяем, поэтому для одинаковых (сумма в копейках, направление расчёта, ставка)
+ * можно возвращать один и тот же объект.
+ * <p>
+ * Кэш — таблица без блокировок из наборов по {@value #WAYS} ячейки. При промахе вытесняется
+ * запись набора, к которой не обращались с прошлого обхода (алгоритм CLOCK, «второй шанс»).
+ * Гонки при записи допустимы: в худшем случае одно значение будет вычислено дважды.
+ */
+public final class VatCache {
+    private static final int WAYS = 4;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity максимальное число хранимых объектов (округляется вверх до степени двойки, ≥ 4)
+     */
+    public VatCache(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Размер кэша должен быть от 1 до 2^30: " + capacity);
+        }
+        int size = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.setMask = size / WAYS - 1;
+    }
+
+    /**
+     * Аналог {@link VAT#fromFullPrice(BigDecimal)}, возвращающий общий объект для повторяющихся сумм.
+     */
+    public VAT fromFullPrice(BigDecimal fullPriceWithVAT) {
+        return fromFullPrice(fullPriceWithVAT, VatRate.STANDARD);
+    }
+
+    /**
+     * Аналог {@link VAT#fromFullPrice(BigDecimal, VatRate)}, возвращающий общий объект
+     * для повторяющихся сумм.
+     */
+    public VAT fromFullPrice(BigDecimal fullPriceWithVAT, VatRate rate) {
+        BigDecimal rounded = fullPriceWithVAT.setScale(2, RoundingMode.HALF_UP);
+        if (rounded.signum() < 0 || rounded.precision() > 18) {
+            return VAT.fromFullPrice(fullPriceWithVAT, rate); // ошибка или сумма вне long — без кэша
+        }
+        return fromFullKopecks(rounded.unscaledValue().longValue(), rate);
+    }
+
+    /**
+     * Аналог {@link VAT#fromPriceWithoutVAT(BigDecimal)}, возвращающий общий объект для повторяющихся сумм.
+     */
+    public VAT fromPriceWithoutVAT(BigDecimal priceWithoutVAT) {
+        return fromPriceWithoutVAT(priceWithoutVAT, VatRate.STANDARD);
+    }
+
+    /**
+     * Аналог {@link VAT#fromPriceWithoutVAT(BigDecimal, VatRate)}, возвращающий общий объект
+     * для повторяющихся сумм.
+     */
+    public VAT fromPriceWithoutVAT(BigDecimal priceWithoutVAT, VatRate rate) {
+        BigDecimal rounded = priceWithoutVAT.setScale(2, RoundingMode.HALF_UP);
+        if (rounded.signum() < 0 || rounded.precision() > 18) {
+            return VAT.fromPriceWithoutVAT(priceWithoutVAT, rate);
+        }
+        return fromKopecksWithoutVAT(rounded.unscaledValue().longValue(), rate);
+    }
+
+    /**
+     * Аналог {@link VAT#fromFullKopecks(long)}; при попадании в кэш не создаёт объектов.
+     */
+    public VAT fromFullKopecks(long fullKopecks) {
+        return lookup(fullKopecks, true, VatRate.STANDARD);
+    }
+
+    /**
+     * Аналог {@link VAT#fromKopecksWithoutVAT(long)}; при попадании в кэш не создаёт объектов.
+     */
+    public VAT fromKopecksWithoutVAT(long netKopecks) {
+        return lookup(netKopecks, false, VatRate.STANDARD);
+    }
+
+    /**
+     * Аналог {@link VAT#fromFullKopecks(long, VatRate)}; при попадании в кэш не создаёт объектов.
+     */
+    public VAT fromFullKopecks(long fullKopecks, VatRate rate) {
+        return lookup(fullKopecks, true, rate);
+    }
+
+    /**
+     * Аналог {@link VAT#fromKopecksWithoutVAT(long, VatRate)}; при попадании в кэш не создаёт объектов.
+     */
+    public VAT fromKopecksWithoutVAT(long netKopecks, VatRate rate) {
+        return lookup(netKopecks, false, rate);
+    }
+
+    private VAT lookup(long kopecks, boolean fromFullPrice, VatRate rate) {
+        int hash = hash(kopecks, fromFullPrice, rate);
+        int first = (hash & setMask) * WAYS;
+        for (int i = first; i < first + WAYS; i++) {
+            Entry entry = slots.get(i);
+            if (entry != null && entry.matches(kopecks, fromFullPrice, rate)) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        VAT value = fromFullPrice
+                ? VAT.fromFullKopecks(kopecks, rate)
+                : VAT.fromKopecksWithoutVAT(kopecks, rate);
+        slots.set(chooseVictim(first, hash), new Entry(kopecks, fromFullPrice, rate, value));
+        return value;
+    }
+
+    /**
+     * Выбирает ячейку набора для новой записи: пустую, иначе первую без отметки обращения.
+     * Если отмечены все, отметки снимаются и вытесняется ячейка, выбранная по хешу.
+     */
+    private int chooseVictim(int first, int hash) {
+        for (int i = first; i < first + WAYS; i++) {
+            if (slots.get(i) == null) {
+                return i;
+            }
+        }
+        evictions.increment();
+        for (int i = first; i < first + WAYS; i++) {
+            Entry entry = slots.get(i);
+            if (entry != null && !entry.referenced) {
+                return i;
+            }
+        }
+        for (int i = first; i < first + WAYS; i++) {
+            Entry entry = slots.get(i);
+            if (entry != null) {
+                entry.referenced = false;
+            }
+        }
+        return first + ((hash >>> 28) & (WAYS - 1));
+    }
+
+    private static int hash(long kopecks, boolean fromFullPrice, VatRate rate) {
+        long h = (kopecks * 0x9E3779B97F4A7C15L) ^ ((long) rate.getPercent() << 1 | (fromFullPrice ? 1 : 0));
+        h ^= h >>> 32;
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+
+    /**
+     * Удаляет все записи кэша. Счётчики не сбрасываются.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    public int getCapacity() { return slots.length(); }
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+
+    @Override
+    public String toString() {
+        return "VatCache{" +
+                "ёмкость=" + getCapacity() +
+                ", попадания=" + getHitCount() +
+                ", промахи=" + getMissCount() +
+                ", вытеснения=" + getEvictionCount() +
+                '}';
+    }
+
+    private static final class Entry {
+        final long kopecks;
+        final boolean fromFullPrice;
+        final VatRate rate;
+        final VAT value;
+        // гонка при записи безвредна: отметка лишь подсказка для вытеснения
+        boolean referenced;
+
+        Entry(long kopecks, boolean fromFullPrice, VatRate rate, VAT value) {
+            this.kopecks = kopecks;
+            this.fromFullPrice = fromFullPrice;
+            this.rate = rate;
+            this.value = value;
+        }
+
+        boolean matches(long kopecks, boolean fromFullPrice, VatRate rate) {
+            return this.kopecks == kopecks && this.fromFullPrice == fromFullPrice && this.rate.equals(rate);
+        }
+    }
+}
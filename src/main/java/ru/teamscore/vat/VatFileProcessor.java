@@ -0,0 +1,282 @@
+package ru.teamscore.vat;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Потоковый расчёт НДС по файлам сумм без загрузки их в кучу.
+ * Входной и выходной файлы отображаются в память, объекты {@link VAT} не создаются,
+ * поэтому потребление памяти не зависит от размера файла.
+ * <p>
+ * Двоичный входной файл — последовательность сумм в копейках (long, big-endian,
+ * как пишет {@link java.io.DataOutputStream}). CSV-файл читается побайтно без создания строк:
+ * сумма в рублях в указанной колонке ({@code 123.45}, лишние знаки округляются HALF_UP).
+ * <p>
+ * Выходной файл содержит три колонки long (big-endian) по {@code n} значений подряд:
+ * суммы без НДС, НДС в чеке и суммы с НДС — всего {@code 24 * n} байт.
+ */
+public final class VatFileProcessor {
+    private static final ValueLayout.OfLong KOPECKS =
+            ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private VatFileProcessor() {
+    }
+
+    /**
+     * Обрабатывает двоичный файл полных стоимостей (включая НДС).
+     *
+     * @return итоги по всем суммам файла
+     * @throws IllegalArgumentException если размер файла не кратен 8 байтам или сумма отрицательна
+     */
+    public static VatTotals processFullPrices(Path input, Path output) throws IOException {
+        return processBinary(input, output, true);
+    }
+
+    /**
+     * Обрабатывает двоичный файл базовых стоимостей (без НДС).
+     *
+     * @return итоги по всем суммам файла
+     * @throws IllegalArgumentException если размер файла не кратен 8 байтам или сумма отрицательна
+     */
+    public static VatTotals processPricesWithoutVAT(Path input, Path output) throws IOException {
+        return processBinary(input, output, false);
+    }
+
+    /**
+     * Обрабатывает CSV-файл, в колонке {@code column} (нумерация с 0) которого записаны
+     * полные стоимости (включая НДС) в рублях. Пустые строки пропускаются.
+     *
+     * @param skipHeader пропустить первую строку файла
+     * @return итоги по всем суммам файла
+     * @throws IllegalArgumentException если в строке нет колонки или сумма записана некорректно
+     */
+    public static VatTotals processFullPricesCsv(Path input, int column, char separator, boolean skipHeader,
+                                                 Path output) throws IOException {
+        return processCsv(input, column, separator, skipHeader, output, true);
+    }
+
+    /**
+     * Обрабатывает CSV-файл, в колонке {@code column} (нумерация с 0) которого записаны
+     * базовые стоимости (без НДС) в рублях. Пустые строки пропускаются.
+     *
+     * @param skipHeader пропустить первую строку файла
+     * @return итоги по всем суммам файла
+     * @throws IllegalArgumentException если в строке нет колонки или сумма записана некорректно
+     */
+    public static VatTotals processPricesWithoutVATCsv(Path input, int column, char separator, boolean skipHeader,
+                                                       Path output) throws IOException {
+        return processCsv(input, column, separator, skipHeader, output, false);
+    }
+
+    private static VatTotals processBinary(Path input, Path output, boolean fromFullPrice) throws IOException {
+        try (Arena arena = Arena.ofConfined();
+             FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size % Long.BYTES != 0) {
+                throw new IllegalArgumentException("Размер файла должен быть кратен 8 байтам: " + size);
+            }
+            long count = size / Long.BYTES;
+            MemorySegment source = in.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            try (ColumnWriter writer = new ColumnWriter(output, count, arena)) {
+                for (long i = 0; i < count; i++) {
+                    writer.write(source.getAtIndex(KOPECKS, i), fromFullPrice);
+                }
+                return writer.totals;
+            }
+        }
+    }
+
+    private static VatTotals processCsv(Path input, int column, char separator, boolean skipHeader,
+                                        Path output, boolean fromFullPrice) throws IOException {
+        if (column < 0) {
+            throw new IllegalArgumentException("Номер колонки не может быть отрицательным: " + column);
+        }
+        try (Arena arena = Arena.ofConfined();
+             FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            MemorySegment source = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size(), arena);
+            CsvScanner scanner = new CsvScanner(source, (byte) separator);
+            // первый проход только считает строки, чтобы заранее разметить колонки результата
+            long count = 0;
+            for (long line = 0; scanner.nextLine(); line++) {
+                if (!(skipHeader && line == 0) && !scanner.isBlankLine()) {
+                    count++;
+                }
+            }
+            scanner.reset();
+            try (ColumnWriter writer = new ColumnWriter(output, count, arena)) {
+                for (long line = 0; scanner.nextLine(); line++) {
+                    if (!(skipHeader && line == 0) && !scanner.isBlankLine()) {
+                        writer.write(scanner.parseKopecks(column, line + 1), fromFullPrice);
+                    }
+                }
+                return writer.totals;
+            }
+        }
+    }
+
+    /**
+     * Пишет колонки результата в отображённый в память выходной файл.
+     */
+    private static final class ColumnWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final MemorySegment target;
+        private final long count;
+        private final VatTotals totals = new VatTotals();
+        private long index;
+
+        ColumnWriter(Path output, long count, Arena arena) throws IOException {
+            this.channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.count = count;
+            this.target = count == 0
+                    ? MemorySegment.NULL
+                    : channel.map(FileChannel.MapMode.READ_WRITE, 0, 3 * Long.BYTES * count, arena);
+        }
+
+        void write(long amount, boolean fromFullPrice) {
+            long full;
+            long net;
+            long vat;
+            if (fromFullPrice) {
+                full = amount;
+                vat = VAT.computeFromFullKopecks(amount);
+                net = full - vat;
+            } else {
+                net = amount;
+                vat = VAT.computeFromKopecksWithoutVAT(amount);
+                full = Math.addExact(net, vat);
+            }
+            target.setAtIndex(KOPECKS, index, net);
+            target.setAtIndex(KOPECKS, count + index, vat);
+            target.setAtIndex(KOPECKS, 2 * count + index, full);
+            totals.add(full, net, vat);
+            index++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Разбирает CSV прямо в отображённой памяти, не копируя байты в строки.
+     */
+    private static final class CsvScanner {
+        private final MemorySegment source;
+        private final long size;
+        private final byte separator;
+        private long lineStart;
+        private long lineEnd;
+        private long next;
+
+        CsvScanner(MemorySegment source, byte separator) {
+            this.source = source;
+            this.size = source.byteSize();
+            this.separator = separator;
+        }
+
+        void reset() {
+            next = 0;
+        }
+
+        /**
+         * Переходит к следующей строке файла.
+         *
+         * @return false, если строки закончились
+         */
+        boolean nextLine() {
+            if (next >= size) {
+                return false;
+            }
+            lineStart = next;
+            long i = next;
+            while (i < size && source.get(ValueLayout.JAVA_BYTE, i) != '\n') {
+                i++;
+            }
+            next = i + 1;
+            lineEnd = (i > lineStart && source.get(ValueLayout.JAVA_BYTE, i - 1) == '\r') ? i - 1 : i;
+            return true;
+        }
+
+        boolean isBlankLine() {
+            for (long i = lineStart; i < lineEnd; i++) {
+                byte b = source.get(ValueLayout.JAVA_BYTE, i);
+                if (b != ' ' && b != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Разбирает сумму в рублях из колонки текущей строки и переводит её в копейки.
+         */
+        long parseKopecks(int column, long lineNumber) {
+            long i = lineStart;
+            for (int c = 0; c < column; c++) {
+                while (i < lineEnd && source.get(ValueLayout.JAVA_BYTE, i) != separator) {
+                    i++;
+                }
+                if (i >= lineEnd) {
+                    throw new IllegalArgumentException("Строка " + lineNumber + ": нет колонки " + column);
+                }
+                i++;
+            }
+            long end = i;
+            while (end < lineEnd && source.get(ValueLayout.JAVA_BYTE, end) != separator) {
+                end++;
+            }
+            while (i < end && source.get(ValueLayout.JAVA_BYTE, i) == ' ') {
+                i++;
+            }
+            while (end > i && source.get(ValueLayout.JAVA_BYTE, end - 1) == ' ') {
+                end--;
+            }
+
+            boolean negative = i < end && source.get(ValueLayout.JAVA_BYTE, i) == '-';
+            if (negative) {
+                i++;
+            }
+            long rubles = 0;
+            long kopecks = 0;
+            int fractionDigits = 0;
+            boolean roundUp = false;
+            boolean seenPoint = false;
+            boolean seenDigit = false;
+            for (; i < end; i++) {
+                byte b = source.get(ValueLayout.JAVA_BYTE, i);
+                if (b == '.' && !seenPoint) {
+                    seenPoint = true;
+                } else if (b >= '0' && b <= '9') {
+                    seenDigit = true;
+                    if (!seenPoint) {
+                        rubles = Math.addExact(Math.multiplyExact(rubles, 10), b - '0');
+                    } else if (fractionDigits < 2) {
+                        kopecks = kopecks * 10 + (b - '0');
+                        fractionDigits++;
+                    } else if (fractionDigits == 2) {
+                        roundUp = b >= '5';
+                        fractionDigits++;
+                    }
+                } else {
+                    throw new IllegalArgumentException("Строка " + lineNumber + ": некорректная сумма в колонке " + column);
+                }
+            }
+            if (!seenDigit) {
+                throw new IllegalArgumentException("Строка " + lineNumber + ": некорректная сумма в колонке " + column);
+            }
+            for (; fractionDigits < 2; fractionDigits++) {
+                kopecks *= 10;
+            }
+            long amount = Math.addExact(Math.multiplyExact(rubles, 100), kopecks + (roundUp ? 1 : 0));
+            return negative ? -amount : amount;
+        }
+    }
+}
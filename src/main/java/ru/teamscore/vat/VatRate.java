@@ -0,0 +1,98 @@
+package ru.teamscore.vat;
+
+import java.math.BigDecimal;
+
+/**
+ * Ставка НДС в целых процентах.
+ * Все величины, нужные для расчёта (множитель, делитель и таблицы округления остатков),
+ * вычисляются один раз при создании ставки, поэтому расчёт по ней не создаёт объектов.
+ */
+public final class VatRate {
+    public static final VatRate STANDARD = new VatRate(20);
+    public static final VatRate REDUCED = new VatRate(10);
+    public static final VatRate ZERO = new VatRate(0);
+
+    private final int percent;
+    private final BigDecimal rate;             // 20% → 0.20
+    private final BigDecimal inclusiveFactor;  // 20% → 1.20
+    private final long inclusiveDivisor;       // 20% → 120
+    // НДС в копейках для остатка от деления суммы на делитель (HALF_UP)
+    private final long[] extractedByRemainder;
+    private final long[] chargedByRemainder;
+
+    private VatRate(int percent) {
+        this.percent = percent;
+        this.rate = BigDecimal.valueOf(percent, 2);
+        this.inclusiveFactor = BigDecimal.ONE.add(rate);
+        this.inclusiveDivisor = 100 + percent;
+        this.extractedByRemainder = new long[(int) inclusiveDivisor];
+        for (int r = 0; r < extractedByRemainder.length; r++) {
+            extractedByRemainder[r] = (2L * r * percent + inclusiveDivisor) / (2 * inclusiveDivisor);
+        }
+        this.chargedByRemainder = new long[100];
+        for (int r = 0; r < chargedByRemainder.length; r++) {
+            chargedByRemainder[r] = (2L * r * percent + 100) / 200;
+        }
+    }
+
+    /**
+     * Возвращает ставку НДС с указанным процентом.
+     *
+     * @param percent ставка в процентах (0–100)
+     * @throws IllegalArgumentException если ставка вне допустимого диапазона
+     */
+    public static VatRate of(int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Ставка НДС должна быть от 0 до 100%: " + percent);
+        }
+        return switch (percent) {
+            case 20 -> STANDARD;
+            case 10 -> REDUCED;
+            case 0 -> ZERO;
+            default -> new VatRate(percent);
+        };
+    }
+
+    /**
+     * Вычисляет НДС в копейках, выделяемый из полной стоимости:
+     * full * p / (100 + p) с округлением HALF_UP до копейки.
+     * Проверка знака суммы — на вызывающей стороне.
+     */
+    long extractKopecks(long fullKopecks) {
+        // full = q * (100 + p) + r, НДС = q * p + round(r * p / (100 + p)) — без переполнения
+        long quotient = fullKopecks / inclusiveDivisor;
+        return quotient * percent + extractedByRemainder[(int) (fullKopecks - quotient * inclusiveDivisor)];
+    }
+
+    /**
+     * Вычисляет НДС в копейках, начисляемый на базовую стоимость:
+     * net * p / 100 с округлением HALF_UP до копейки.
+     * Проверка знака суммы — на вызывающей стороне.
+     */
+    long chargeKopecks(long netKopecks) {
+        long quotient = netKopecks / 100;
+        return quotient * percent + chargedByRemainder[(int) (netKopecks - quotient * 100)];
+    }
+
+    public int getPercent() { return percent; }
+    public BigDecimal getRate() { return rate; }
+    public BigDecimal getInclusiveFactor() { return inclusiveFactor; }
+    long getInclusiveDivisor() { return inclusiveDivisor; }
+
+    @Override
+    public String toString() {
+        return percent + "%";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VatRate other)) return false;
+        return percent == other.percent;
+    }
+
+    @Override
+    public int hashCode() {
+        return percent;
+    }
+}
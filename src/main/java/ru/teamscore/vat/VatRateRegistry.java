@@ -0,0 +1,110 @@
+package ru.teamscore.vat;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Реестр ставок НДС: для каждого кода ставки (например, "STANDARD", "REDUCED")
+ * хранит историю ставок с датами начала действия.
+ * <p>
+ * История одного кода хранится в двух отсортированных массивах (даты начала и ставки),
+ * поэтому поиск ставки на дату — это поиск по нескольким элементам без создания объектов.
+ */
+public final class VatRateRegistry {
+    private final Map<String, Schedule> schedules;
+
+    private VatRateRegistry(Map<String, Schedule> schedules) {
+        this.schedules = schedules;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Возвращает ставку, действующую на указанную дату.
+     *
+     * @param code код ставки
+     * @param date дата операции
+     * @throws IllegalArgumentException если код неизвестен или на дату ставка ещё не действовала
+     */
+    public VatRate get(String code, LocalDate date) {
+        return get(code, date.toEpochDay());
+    }
+
+    /**
+     * Возвращает ставку, действующую на указанный день (см. {@link LocalDate#toEpochDay()}).
+     *
+     * @param code     код ставки
+     * @param epochDay номер дня от 1970-01-01
+     * @throws IllegalArgumentException если код неизвестен или на дату ставка ещё не действовала
+     */
+    public VatRate get(String code, long epochDay) {
+        Schedule schedule = schedules.get(code);
+        if (schedule == null) {
+            throw new IllegalArgumentException("Неизвестный код ставки НДС: " + code);
+        }
+        int index = Arrays.binarySearch(schedule.effectiveFrom, epochDay);
+        if (index < 0) {
+            index = -index - 2; // последняя ставка, вступившая в силу до этой даты
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Ставка НДС " + code + " не действовала на "
+                    + LocalDate.ofEpochDay(epochDay));
+        }
+        return schedule.rates[index];
+    }
+
+    /**
+     * Возвращает коды всех ставок реестра.
+     */
+    public Set<String> getCodes() {
+        return schedules.keySet();
+    }
+
+    private record Schedule(long[] effectiveFrom, VatRate[] rates) {
+    }
+
+    /**
+     * Построитель реестра ставок.
+     */
+    public static final class Builder {
+        private final Map<String, TreeMap<Long, VatRate>> entries = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Добавляет ставку, действующую с указанной даты до начала следующей ставки того же кода.
+         *
+         * @throws IllegalArgumentException если для кода уже задана ставка с этой даты
+         */
+        public Builder add(String code, LocalDate effectiveFrom, VatRate rate) {
+            if (code == null || effectiveFrom == null || rate == null) {
+                throw new IllegalArgumentException("Код, дата и ставка не могут быть null");
+            }
+            TreeMap<Long, VatRate> history = entries.computeIfAbsent(code, k -> new TreeMap<>());
+            if (history.putIfAbsent(effectiveFrom.toEpochDay(), rate) != null) {
+                throw new IllegalArgumentException("Ставка " + code + " с " + effectiveFrom + " уже задана");
+            }
+            return this;
+        }
+
+        public VatRateRegistry build() {
+            Map<String, Schedule> schedules = new HashMap<>();
+            for (Map.Entry<String, TreeMap<Long, VatRate>> entry : entries.entrySet()) {
+                TreeMap<Long, VatRate> history = entry.getValue();
+                long[] effectiveFrom = new long[history.size()];
+                VatRate[] rates = new VatRate[history.size()];
+                int i = 0;
+                for (Map.Entry<Long, VatRate> change : history.entrySet()) {
+                    effectiveFrom[i] = change.getKey();
+                    rates[i] = change.getValue();
+                    i++;
+                }
+                schedules.put(entry.getKey(), new Schedule(effectiveFrom, rates));
+            }
+            return new VatRateRegistry(Collections.unmodifiableMap(schedules));
+        }
+    }
+}
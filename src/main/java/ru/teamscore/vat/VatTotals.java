@@ -0,0 +1,89 @@
+package ru.teamscore.vat;
+
+/**
+ * Итоги НДС по набору чеков: суммы с НДС, без НДС, НДС в чеках (в копейках)
+ * и НДС для декларации (в рублях, каждый чек округляется отдельно).
+ * Все суммы целочисленные, поэтому итог не зависит от порядка сложения.
+ */
+public final class VatTotals {
+    private long count;
+    private long fullPriceWithVAT;
+    private long priceWithoutVAT;
+    private long vatInReceipt;
+    private long vatForDeclaration;
+
+    VatTotals() {
+    }
+
+    /**
+     * Учитывает чек по полной стоимости (включая НДС).
+     */
+    void addFullPrice(long fullKopecks) {
+        long vat = VAT.computeFromFullKopecks(fullKopecks);
+        add(fullKopecks, fullKopecks - vat, vat);
+    }
+
+    /**
+     * Учитывает чек по базовой стоимости (без НДС).
+     */
+    void addPriceWithoutVAT(long netKopecks) {
+        long vat = VAT.computeFromKopecksWithoutVAT(netKopecks);
+        add(Math.addExact(netKopecks, vat), netKopecks, vat);
+    }
+
+    /**
+     * Учитывает чек с уже рассчитанными суммами.
+     */
+    void add(long full, long net, long vat) {
+        count++;
+        fullPriceWithVAT = Math.addExact(fullPriceWithVAT, full);
+        priceWithoutVAT = Math.addExact(priceWithoutVAT, net);
+        vatInReceipt = Math.addExact(vatInReceipt, vat);
+        vatForDeclaration = Math.addExact(vatForDeclaration, VAT.roundKopecksToRublesForDeclaration(vat));
+    }
+
+    /**
+     * Добавляет к текущим итогам итоги другой части набора.
+     */
+    void combine(VatTotals other) {
+        count += other.count;
+        fullPriceWithVAT = Math.addExact(fullPriceWithVAT, other.fullPriceWithVAT);
+        priceWithoutVAT = Math.addExact(priceWithoutVAT, other.priceWithoutVAT);
+        vatInReceipt = Math.addExact(vatInReceipt, other.vatInReceipt);
+        vatForDeclaration = Math.addExact(vatForDeclaration, other.vatForDeclaration);
+    }
+
+    public long getCount() { return count; }
+    public long getFullPriceWithVAT() { return fullPriceWithVAT; }
+    public long getPriceWithoutVAT() { return priceWithoutVAT; }
+    public long getVATInReceipt() { return vatInReceipt; }
+    public long getVATForDeclaration() { return vatForDeclaration; }
+
+    @Override
+    public String toString() {
+        return "VatTotals{" +
+                "чеков=" + count +
+                ", сНДС=" + fullPriceWithVAT +
+                ", безНДС=" + priceWithoutVAT +
+                ", НДСвЧеках=" + vatInReceipt +
+                ", НДСвДекл=" + vatForDeclaration +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VatTotals totals)) return false;
+        return count == totals.count &&
+                fullPriceWithVAT == totals.fullPriceWithVAT &&
+                priceWithoutVAT == totals.priceWithoutVAT &&
+                vatInReceipt == totals.vatInReceipt &&
+                vatForDeclaration == totals.vatForDeclaration;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(count) ^ Long.hashCode(fullPriceWithVAT) ^ Long.hashCode(priceWithoutVAT)
+                ^ Long.hashCode(vatInReceipt) ^ Long.hashCode(vatForDeclaration);
+    }
+}
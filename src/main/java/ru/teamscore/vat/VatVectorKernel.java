@@ -0,0 +1,96 @@
+package ru.teamscore.vat;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD-ядро пакетного расчёта НДС на {@code jdk.incubator.vector}.
+ * Используется из {@link VatBatch}, только если модуль подключён
+ * ({@code --add-modules jdk.incubator.vector}); иначе класс не загружается.
+ * <p>
+ * Целочисленное деление над векторами long не поддерживается процессором, поэтому
+ * частные считаются в double: для сумм до {@link #MAX_KOPECKS} деление корректно
+ * округлено и отбрасывание дробной части даёт тот же результат, что и деление long.
+ * Как и в {@link VatRate}, сумма раскладывается на частное и остаток от деления
+ * на делитель ставки, чтобы промежуточные значения не выходили за эту границу.
+ */
+final class VatVectorKernel {
+
+    /** Верхняя граница суммы (в копейках), для которой вычисление через double точное. */
+    static final long MAX_KOPECKS = 1L << 50;
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    private VatVectorKernel() {
+    }
+
+    /**
+     * Выделяет НДС из полных стоимостей: full = q * d + r, vat = q * p + floor((2rp + d) / 2d),
+     * net = full - vat, где p — ставка в процентах, d = 100 + p.
+     *
+     * @return сумма НДС для декларации по всем строкам (в рублях)
+     */
+    static long extractFromFull(long[] full, long[] net, long[] vat, VatRate rate) {
+        int size = full.length;
+        int upper = LONGS.loopBound(size);
+        long percent = rate.getPercent();
+        long divisor = rate.getInclusiveDivisor();
+        LongVector declaration = LongVector.zero(LONGS);
+        int i = 0;
+        for (; i < upper; i += LONGS.length()) {
+            LongVector f = LongVector.fromArray(LONGS, full, i);
+            LongVector q = divide(f, divisor);
+            LongVector r = f.sub(q.mul(divisor));
+            LongVector v = q.mul(percent).add(divide(r.mul(2 * percent).add(divisor), 2 * divisor));
+            v.intoArray(vat, i);
+            f.sub(v).intoArray(net, i);
+            declaration = declaration.add(divide(v.add(50), 100));
+        }
+        long total = declaration.reduceLanes(VectorOperators.ADD);
+        for (; i < size; i++) {
+            long v = rate.extractKopecks(full[i]);
+            vat[i] = v;
+            net[i] = full[i] - v;
+            total += VAT.roundKopecksToRublesForDeclaration(v);
+        }
+        return total;
+    }
+
+    /**
+     * Начисляет НДС на базовые стоимости: net = q * 100 + r, vat = q * p + floor((2rp + 100) / 200),
+     * full = net + vat.
+     *
+     * @return сумма НДС для декларации по всем строкам (в рублях)
+     */
+    static long chargeOnNet(long[] net, long[] vat, long[] full, VatRate rate) {
+        int size = net.length;
+        int upper = LONGS.loopBound(size);
+        long percent = rate.getPercent();
+        LongVector declaration = LongVector.zero(LONGS);
+        int i = 0;
+        for (; i < upper; i += LONGS.length()) {
+            LongVector n = LongVector.fromArray(LONGS, net, i);
+            LongVector q = divide(n, 100);
+            LongVector r = n.sub(q.mul(100));
+            LongVector v = q.mul(percent).add(divide(r.mul(2 * percent).add(100), 200));
+            v.intoArray(vat, i);
+            n.add(v).intoArray(full, i);
+            declaration = declaration.add(divide(v.add(50), 100));
+        }
+        long total = declaration.reduceLanes(VectorOperators.ADD);
+        for (; i < size; i++) {
+            long v = rate.chargeKopecks(net[i]);
+            vat[i] = v;
+            full[i] = net[i] + v;
+            total += VAT.roundKopecksToRublesForDeclaration(v);
+        }
+        return total;
+    }
+
+    private static LongVector divide(LongVector dividend, long divisor) {
+        DoubleVector quotient = ((DoubleVector) dividend.convert(VectorOperators.L2D, 0)).div(divisor);
+        return (LongVector) quotient.convert(VectorOperators.D2L, 0);
+    }
+}
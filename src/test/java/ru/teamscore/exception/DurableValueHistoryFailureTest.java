@@ -0,0 +1,197 @@
+package ru.teamscore.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableValueHistoryFailureTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Снимок, ждавший неудачной записи журнала, не сохраняет неподтверждённые значения")
+    void flushFailureDuringSnapshot_snapshotFails() throws Exception {
+        CountDownLatch forcing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DurableValueHistory history = DurableValueHistory.open(directory, 1000,
+                channel -> new FailingChannel(channel, forcing, release));
+
+        // ведущий поток пишет "a" и останавливается на синхронизации
+        FutureTask<Integer> leader = new FutureTask<>(() -> history.addOrGetPosition("a"));
+        start(leader);
+        assertTrue(forcing.await(10, TimeUnit.SECONDS));
+        // "b" и снимок ждут ведущего
+        FutureTask<Integer> follower = new FutureTask<>(() -> history.addOrGetPosition("b"));
+        awaitWaiting(start(follower));
+        FutureTask<Void> snapshot = new FutureTask<>(() -> {
+            history.snapshot();
+            return null;
+        });
+        awaitWaiting(start(snapshot));
+
+        release.countDown();
+
+        assertFailed(UncheckedIOException.class, leader);
+        assertFailed(UncheckedIOException.class, follower);
+        assertFailed(UncheckedIOException.class, snapshot);
+        assertThrows(UncheckedIOException.class, () -> history.addOrGetPosition("c"));
+        history.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(), files.filter(file -> file.toString().endsWith(".bin")).toList());
+        }
+        try (DurableValueHistory reopened = DurableValueHistory.open(directory)) {
+            assertEquals(-1, reopened.getFirstPosition("b"));
+        }
+    }
+
+    private static Thread start(Runnable task) {
+        Thread thread = new Thread(task);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "поток не дошёл до ожидания");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertFailed(Class<? extends Throwable> expected, FutureTask<?> task) throws Exception {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> task.get(10, TimeUnit.SECONDS));
+        assertEquals(expected, exception.getCause().getClass());
+    }
+
+    /**
+     * Журнал, у которого первая синхронизация ждёт разрешения теста и завершается ошибкой.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private final CountDownLatch forcing;
+        private final CountDownLatch release;
+
+        FailingChannel(FileChannel delegate, CountDownLatch forcing, CountDownLatch release) {
+            this.delegate = delegate;
+            this.forcing = forcing;
+            this.release = release;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (forcing.getCount() > 0) {
+                forcing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Сбой синхронизации");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
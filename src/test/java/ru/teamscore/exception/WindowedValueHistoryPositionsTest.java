@@ -0,0 +1,37 @@
+package ru.teamscore.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedValueHistoryPositionsTest {
+
+    @Test
+    @DisplayName("На Integer.MAX_VALUE позиции окна сдвигаются к началу, повторы по-прежнему находятся")
+    void positionsRebasedAtIntegerMax() {
+        WindowedValueHistory history = new WindowedValueHistory(3, null, System::nanoTime, Integer.MAX_VALUE - 4);
+
+        assertEquals(Integer.MAX_VALUE - 4, history.addOrGetPosition("a"));
+        assertEquals(Integer.MAX_VALUE - 3, history.addOrGetPosition("b"));
+        assertEquals(Integer.MAX_VALUE - 2, history.addOrGetPosition("c"));
+        assertEquals(Integer.MAX_VALUE - 1, history.addOrGetPosition("d"));
+        assertEquals(-(Integer.MAX_VALUE - 3), history.addOrGetPosition("b"));
+
+        // сдвиг кратен размеру окна: "c" и "d" переходят на позиции 2 и 3
+        assertEquals(4, history.addOrGetPosition("e"));
+        assertEquals(List.of("c", "d", "e"), history.getValues());
+        assertEquals(2, history.getFirstPosition("c"));
+        assertEquals(-3, history.addOrGetPosition(" d "));
+        assertEquals(-1, history.getFirstPosition("b"));
+        assertEquals(5, history.addOrGetPosition("b"));
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(6 + i, history.addOrGetPosition("value-" + i));
+            assertEquals(-(6 + i), history.addOrGetPosition("value-" + i));
+        }
+        assertEquals(3, history.size());
+    }
+}
@@ -0,0 +1,59 @@
+package ru.teamscore.exceptiontest;
+
+import ru.teamscore.exception.ConcurrentValueHistory;
+import ru.teamscore.exception.ValueHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.teamscore.exceptiontest.ValueHistoryAssertions.*;
+
+class ConcurrentValueHistoryTest {
+
+    @Test
+    @DisplayName("В одном потоке позиции и повторы совпадают с ValueHistory")
+    void singleThread_matchesValueHistory() {
+        ConcurrentValueHistory concurrent = new ConcurrentValueHistory();
+        ValueHistory reference = new ValueHistory();
+        Random random = new Random(17);
+        for (int i = 0; i < 5000; i++) {
+            String value = (random.nextBoolean() ? " " : "") + "value-" + random.nextInt(2000);
+            assertEquals(reference.addOrGetPosition(value), concurrent.addOrGetPosition(value), value);
+        }
+        assertEquals(reference.getValues(), concurrent.getValues());
+        assertEquals(reference.getValues().size(), concurrent.size());
+        assertEquals(reference.getFirstPosition("value-7"), concurrent.getFirstPosition("value-7"));
+        assertEquals(-1, concurrent.getFirstPosition("missing"));
+    }
+
+    @Test
+    @DisplayName("Повтор бросает исключение с позицией первого вхождения")
+    void add_duplicate_throwsException() throws Exception {
+        ConcurrentValueHistory history = new ConcurrentValueHistory();
+        history.add("first");
+        history.add("second");
+
+        assertAlreadyExists("second", 2, () -> history.add("  second "));
+        assertThrows(IllegalArgumentException.class, () -> history.add(null));
+    }
+
+    @Test
+    @DisplayName("Одновременное добавление даёт уникальные позиции без пропусков")
+    void concurrentAdds_produceUniqueDensePositions() throws Exception {
+        ConcurrentValueHistory history = new ConcurrentValueHistory();
+
+        int expected = assertConcurrentAddsDense(history::addOrGetPosition, 8, 20_000);
+
+        assertEquals(expected, history.size());
+        List<String> values = history.getValues();
+        assertEquals(expected, values.size());
+        assertEquals(expected, new HashSet<>(values).size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i + 1, history.getFirstPosition(values.get(i)));
+        }
+    }
+}
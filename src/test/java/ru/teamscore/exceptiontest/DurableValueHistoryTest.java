@@ -0,0 +1,188 @@
+package ru.teamscore.exceptiontest;
+
+import ru.teamscore.exception.DurableValueHistory;
+import ru.teamscore.exception.ValueHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.teamscore.exceptiontest.ValueHistoryAssertions.*;
+
+class DurableValueHistoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Позиции и повторы совпадают с ValueHistory и сохраняются после перезапуска")
+    void addOrGetPosition_matchesValueHistoryAcrossReopen() throws IOException {
+        ValueHistory reference = new ValueHistory();
+        Random random = new Random(21);
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            for (int i = 0; i < 2000; i++) {
+                String value = (i % 5 == 0 ? " " : "") + "value-" + random.nextInt(1500);
+                assertEquals(reference.addOrGetPosition(value), history.addOrGetPosition(value), value);
+            }
+        }
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertEquals(reference.getValues(), history.getValues());
+            assertEquals(reference.size(), history.size());
+            for (int i = 0; i < 2000; i++) {
+                String value = "value-" + random.nextInt(2000);
+                assertEquals(reference.addOrGetPosition(value), history.addOrGetPosition(value), value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Повтор значения, добавленного до перезапуска, бросает исключение")
+    void add_duplicateAfterReopen_throwsException() throws Exception {
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            history.add("first");
+            history.add("второе");
+        }
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertAlreadyExists("второе", 2, () -> history.add(" второе "));
+            assertEquals(3, history.addOrGetPosition("third"));
+        }
+    }
+
+    @Test
+    @DisplayName("Недописанная последняя запись отбрасывается, журнал обрезается")
+    void truncatedLastRecord_isDropped() throws Exception {
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            history.add("first");
+            history.add("second");
+            history.add("third value");
+        }
+        Path log = onlyLog();
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertEquals(List.of("first", "second"), history.getValues());
+            assertEquals(3, history.addOrGetPosition("third value"));
+        }
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertEquals(List.of("first", "second", "third value"), history.getValues());
+        }
+    }
+
+    @Test
+    @DisplayName("Последняя запись с неверной контрольной суммой отбрасывается")
+    void corruptLastRecord_isDropped() throws Exception {
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            history.add("first");
+            history.add("second");
+        }
+        Path log = onlyLog();
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(log, bytes);
+
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertEquals(List.of("first"), history.getValues());
+            assertEquals(-1, history.getFirstPosition("second"));
+        }
+        assertEquals(bytes.length - 8 - "second".length(), Files.size(log));
+    }
+
+    @Test
+    @DisplayName("После снимка значения восстанавливаются из снимка и хвоста журнала")
+    void reopenAfterSnapshot() throws IOException {
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            for (int i = 0; i < 100; i++) {
+                history.addOrGetPosition("value-" + i);
+            }
+            history.snapshot();
+            for (int i = 100; i < 150; i++) {
+                history.addOrGetPosition("value-" + i);
+            }
+        }
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertEquals(150, history.size());
+            assertEquals(1, history.getFirstPosition("value-0"));
+            assertEquals(150, history.getFirstPosition("value-149"));
+            assertEquals(-101, history.addOrGetPosition("value-100"));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count(), "старый журнал удалён");
+        }
+    }
+
+    @Test
+    @DisplayName("Автоматические снимки по интервалу не теряют значений")
+    void automaticSnapshots_keepAllValues() throws IOException {
+        try (DurableValueHistory history = DurableValueHistory.open(directory, 16)) {
+            for (int i = 0; i < 200; i++) {
+                assertEquals(i + 1, history.addOrGetPosition("value-" + i));
+            }
+        }
+        try (DurableValueHistory history = DurableValueHistory.open(directory, 16)) {
+            assertEquals(200, history.size());
+            for (int i = 0; i < 200; i += 7) {
+                assertEquals(i + 1, history.getFirstPosition("value-" + i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Одновременное добавление даёт уникальные позиции без пропусков и переживает перезапуск")
+    void concurrentAdds_produceUniqueDensePositions() throws Exception {
+        List<String> expectedValues;
+        try (DurableValueHistory history = DurableValueHistory.open(directory, 1000)) {
+            int expected = assertConcurrentAddsDense(history::addOrGetPosition, 8, 500);
+            assertEquals(expected, history.size());
+            expectedValues = history.getValues();
+        }
+        try (DurableValueHistory history = DurableValueHistory.open(directory, 1000)) {
+            assertEquals(expectedValues, history.getValues());
+        }
+    }
+
+    @Test
+    @DisplayName("Значения с непарными суррогатами и null отклоняются")
+    void invalidValues_rejected() throws IOException {
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertThrows(IllegalArgumentException.class, () -> history.addOrGetPosition("x\uD800"));
+            assertThrows(IllegalArgumentException.class, () -> history.addOrGetPosition("\uDC00x"));
+            assertThrows(IllegalArgumentException.class, () -> history.addOrGetPosition(null));
+            assertEquals(1, history.addOrGetPosition("x?"));
+            assertEquals(2, history.addOrGetPosition("😀 emoji"));
+        }
+        try (DurableValueHistory history = DurableValueHistory.open(directory)) {
+            assertEquals(List.of("x?", "😀 emoji"), history.getValues());
+        }
+    }
+
+    @Test
+    @DisplayName("Некорректные параметры и закрытая история")
+    void invalidArguments() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> DurableValueHistory.open(directory, 0));
+
+        DurableValueHistory history = DurableValueHistory.open(directory);
+        history.close();
+        history.close();
+        assertThrows(IllegalStateException.class, () -> history.addOrGetPosition("value"));
+    }
+
+    private Path onlyLog() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> logs = files.filter(file -> file.getFileName().toString().endsWith(".log")).toList();
+            assertEquals(1, logs.size());
+            return logs.get(0);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.teamscore.exceptiontest;
+
+import ru.teamscore.exception.Main;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MainTest {
+
+    @TempDir
+    Path directory;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private InputStream originalIn;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void redirectOutput() {
+        originalIn = System.in;
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void restoreOutput() {
+        System.setIn(originalIn);
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("--stream выводит позицию каждого значения или повтор и итог в stderr")
+    void stream_printsPositionsAndSummary() throws IOException {
+        Path file = Files.write(directory.resolve("values.txt"), List.of("first", " второе ", "first", "", "третье"));
+
+        Main.main(new String[]{"--stream", file.toString()});
+
+        assertEquals(List.of("1. first", "2. второе", "Повтор: 'first' (позиция 1)", "3. ", "4. третье"),
+                out.toString(StandardCharsets.UTF_8).lines().toList());
+        String summary = err.toString(StandardCharsets.UTF_8);
+        assertTrue(summary.startsWith("Строк: 5, принято: 4, повторов: 1,"), summary);
+    }
+
+    @Test
+    @DisplayName("--quiet работает в любой позиции и оставляет только итог")
+    void quiet_anyPosition() throws IOException {
+        List<String> lines = new ArrayList<>();
+        // больше одной пачки чтения
+        for (int i = 0; i < 20_000; i++) {
+            lines.add("value-" + i % 15_000);
+        }
+        Path file = Files.write(directory.resolve("values.txt"), lines);
+
+        for (String[] args : List.of(
+                new String[]{"--stream", "--quiet", file.toString()},
+                new String[]{"--stream", file.toString(), "--quiet"},
+                new String[]{"--quiet", file.toString(), "--stream"})) {
+            out.reset();
+            err.reset();
+
+            Main.main(args);
+
+            assertEquals("", out.toString(StandardCharsets.UTF_8), String.join(" ", args));
+            assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("Строк: 20000, принято: 15000, повторов: 5000,"),
+                    err.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Ошибка чтения в фоновом потоке передаётся в основной")
+    void readError_rethrownOnMainThread() {
+        assertThrows(IOException.class, () -> Main.main(new String[]{"--stream", directory.toString()}));
+        assertThrows(IllegalArgumentException.class,
+                () -> Main.main(new String[]{"--stream", "first.txt", "second.txt"}));
+    }
+
+    @Test
+    @DisplayName("Стандартный ввод читается в UTF-8")
+    void stream_readsStdinAsUtf8() throws IOException {
+        System.setIn(new ByteArrayInputStream("значение\n😀\nзначение\n".getBytes(StandardCharsets.UTF_8)));
+
+        Main.main(new String[]{"--stream"});
+
+        assertEquals(List.of("1. значение", "2. 😀", "Повтор: 'значение' (позиция 1)"),
+                out.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    @DisplayName("Неизвестные параметры и аргументы без --stream отклоняются")
+    void invalidArguments_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> Main.main(new String[]{"--stream", "--qiet"}));
+        assertThrows(IllegalArgumentException.class, () -> Main.main(new String[]{"--help"}));
+        assertThrows(IllegalArgumentException.class, () -> Main.main(new String[]{"values.txt"}));
+        assertThrows(IllegalArgumentException.class, () -> Main.main(new String[]{"--quiet"}));
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+}
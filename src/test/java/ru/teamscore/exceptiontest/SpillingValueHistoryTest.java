@@ -0,0 +1,116 @@
+package ru.teamscore.exceptiontest;
+
+import ru.teamscore.exception.SpillingValueHistory;
+import ru.teamscore.exception.ValueHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.teamscore.exceptiontest.ValueHistoryAssertions.*;
+
+class SpillingValueHistoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Позиции и повторы совпадают с ValueHistory при сбросе на диск")
+    void addOrGetPosition_matchesValueHistory() throws IOException {
+        ValueHistory reference = new ValueHistory();
+        Random random = new Random(20);
+        try (SpillingValueHistory history = new SpillingValueHistory(directory, 64, 20_000, 0.01)) {
+            for (int i = 0; i < 20_000; i++) {
+                String value = "value-" + random.nextInt(12_000) + (i % 7 == 0 ? "  " : "");
+                assertEquals(reference.addOrGetPosition(value), history.addOrGetPosition(value), value);
+            }
+            assertEquals(reference.size(), history.size());
+            for (int i = 0; i < 12_000; i += 13) {
+                assertEquals(reference.getFirstPosition("value-" + i), history.getFirstPosition("value-" + i));
+            }
+            assertTrue(history.getSegmentCount() > 0);
+            // сегменты близкого размера сливаются: их число растёт как логарифм
+            assertTrue(history.getSegmentCount() <= 2 * (32 - Integer.numberOfLeadingZeros(history.size() / 64)),
+                    "segments: " + history.getSegmentCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Значения не из ASCII находятся в сегментах")
+    void nonAsciiValues_foundOnDisk() throws Exception {
+        try (SpillingValueHistory history = new SpillingValueHistory(directory, 2, 100, 0.01)) {
+            history.add("значение");
+            history.add("😀 emoji");
+            history.add("x\uD800");
+            history.add("x?");
+            history.add("last");
+
+            assertEquals(1, history.getFirstPosition("значение"));
+            assertEquals(2, history.getFirstPosition("😀 emoji"));
+            assertEquals(3, history.getFirstPosition("x\uD800"));
+            assertEquals(4, history.getFirstPosition("x?"));
+            assertAlreadyExists("значение", 1, () -> history.add(" значение "));
+        }
+    }
+
+    @Test
+    @DisplayName("Экземпляры в одном каталоге не мешают друг другу, файлы удаляются при закрытии")
+    void sharedDirectory_filesDeletedOnClose() throws IOException {
+        Path leftover = Files.createFile(directory.resolve("value-history-0-0.seg"));
+        try (SpillingValueHistory first = new SpillingValueHistory(directory, 4, 1000, 0.01);
+             SpillingValueHistory second = new SpillingValueHistory(directory, 4, 1000, 0.01)) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i + 1, first.addOrGetPosition("first-" + i));
+                assertEquals(i + 1, second.addOrGetPosition("second-" + i));
+            }
+            assertEquals(-1, first.getFirstPosition("second-5"));
+            assertEquals(6, second.getFirstPosition("second-5"));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        assertTrue(Files.exists(leftover));
+    }
+
+    @Test
+    @DisplayName("После неудачного сброса значения в памяти по-прежнему находятся")
+    void failedSpill_keepsHotValuesSearchable() throws IOException {
+        Path segments = Files.createDirectory(directory.resolve("segments"));
+        try (SpillingValueHistory history = new SpillingValueHistory(segments, 8, 1000, 0.01)) {
+            for (int i = 0; i < 8; i++) {
+                history.addOrGetPosition("value-" + (7 - i));
+            }
+            Files.delete(segments);
+
+            assertThrows(UncheckedIOException.class, () -> history.addOrGetPosition("value-8"));
+            for (int i = 0; i < 8; i++) {
+                assertEquals(8 - i, history.getFirstPosition("value-" + i));
+                assertEquals(-(8 - i), history.addOrGetPosition("value-" + i));
+            }
+
+            Files.createDirectory(segments);
+            assertEquals(9, history.addOrGetPosition("value-8"));
+            assertEquals(1, history.getSegmentCount());
+            assertEquals(3, history.getFirstPosition("value-5"));
+        }
+    }
+
+    @Test
+    @DisplayName("Некорректные параметры и закрытая история")
+    void invalidArguments() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new SpillingValueHistory(directory, 0, 100, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new SpillingValueHistory(directory, 10, 0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new SpillingValueHistory(directory, 10, 100, 1.0));
+
+        SpillingValueHistory history = new SpillingValueHistory(directory, 10, 100, 0.01);
+        history.close();
+        assertThrows(IllegalStateException.class, () -> history.addOrGetPosition("value"));
+    }
+}
@@ -0,0 +1,83 @@
+package ru.teamscore.exceptiontest;
+
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки, общие для тестов историй значений.
+ */
+final class ValueHistoryAssertions {
+
+    private ValueHistoryAssertions() {
+    }
+
+    /**
+     * Проверяет, что {@code add} бросает AlreadyExistsException с данным значением и позицией первого
+     * вхождения. Класс исключения не виден из этого пакета, поэтому сравнивается его имя.
+     * Повтор — ожидаемый исход, поэтому стек вызовов у исключения не заполняется.
+     */
+    static void assertAlreadyExists(String value, int position, Executable add) {
+        Exception exception = assertThrows(Exception.class, add);
+        assertEquals("ru.teamscore.exception.AlreadyExistsException", exception.getClass().getName());
+        assertEquals("Дублирующееся значение: '" + value + "' (первый раз было введено на позиции " + position + ")",
+                exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    /**
+     * Добавляет значения одновременно из {@code threads} потоков (пары потоков добавляют одни и те же
+     * значения) и проверяет, что каждая позиция выдана один раз и позиции идут подряд с 1.
+     *
+     * @param addOrGetPosition добавление: позиция нового значения или отрицательное число для повтора
+     * @return число принятых значений
+     */
+    static int assertConcurrentAddsDense(ToIntFunction<String> addOrGetPosition, int threads, int perThread)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Integer>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                String prefix = "v" + (t / 2) + "-";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Integer> accepted = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        int position = addOrGetPosition.applyAsInt(prefix + i);
+                        if (position > 0) {
+                            accepted.add(position);
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            start.countDown();
+
+            Set<Integer> positions = new HashSet<>();
+            for (Future<List<Integer>> result : results) {
+                for (int position : result.get()) {
+                    assertTrue(positions.add(position), "позиция выдана дважды: " + position);
+                }
+            }
+            int expected = (threads + 1) / 2 * perThread;
+            assertEquals(expected, positions.size());
+            for (int position = 1; position <= expected; position++) {
+                assertTrue(positions.contains(position), "пропущена позиция " + position);
+            }
+            return expected;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.teamscore.exceptiontest;
+
+import ru.teamscore.exception.ValueHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.teamscore.exceptiontest.ValueHistoryAssertions.*;
+
+class ValueHistoryTest {
+
+    @Test
+    @DisplayName("Позиции нумеруются с 1, повтор возвращает позицию первого вхождения со знаком минус")
+    void addOrGetPosition_positionsAndDuplicates() {
+        ValueHistory history = new ValueHistory();
+
+        assertEquals(1, history.addOrGetPosition("first"));
+        assertEquals(2, history.addOrGetPosition("  second "));
+        assertEquals(-2, history.addOrGetPosition("second"));
+        assertEquals(-1, history.addOrGetPosition("first\t"));
+        assertEquals(3, history.addOrGetPosition("First"));
+        assertEquals(3, history.size());
+        assertEquals(2, history.getFirstPosition(" second"));
+        assertEquals(-1, history.getFirstPosition("missing"));
+        assertThrows(IllegalArgumentException.class, () -> history.addOrGetPosition(null));
+    }
+
+    @Test
+    @DisplayName("Повтор бросает исключение со значением и позицией первого вхождения")
+    void add_duplicate_throwsException() throws Exception {
+        ValueHistory history = new ValueHistory();
+        history.add("first");
+        history.add("second");
+
+        assertAlreadyExists("second", 2, () -> history.add("  second "));
+        assertEquals(2, history.size());
+    }
+
+    @Test
+    @DisplayName("Позиции совпадают с наивной реализацией после перестроений таблицы")
+    void manyValues_matchMap() {
+        ValueHistory history = new ValueHistory();
+        Map<String, Integer> reference = new HashMap<>();
+        Random random = new Random(22);
+        for (int i = 0; i < 50_000; i++) {
+            String value = "value-" + random.nextInt(30_000);
+            Integer first = reference.putIfAbsent(value, reference.size() + 1);
+            assertEquals(first == null ? reference.size() : -first, history.addOrGetPosition(value), value);
+        }
+        assertEquals(reference.size(), history.size());
+        reference.forEach((value, position) -> assertEquals(position.intValue(), history.getFirstPosition(value)));
+    }
+
+    @Test
+    @DisplayName("values() отражает новые значения, getValues() — копия")
+    void values_isLiveView() {
+        ValueHistory history = new ValueHistory();
+        history.addOrGetPosition("a");
+        List<String> view = history.values();
+        List<String> copy = history.getValues();
+
+        history.addOrGetPosition("b");
+        history.addOrGetPosition("a");
+
+        assertEquals(List.of("a", "b"), view);
+        assertEquals(List.of("a"), copy);
+        assertEquals(2, view.size());
+        assertEquals("b", view.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> view.add("c"));
+        assertThrows(UnsupportedOperationException.class, () -> view.set(0, "c"));
+    }
+
+    @Test
+    @DisplayName("values(from, to) — диапазон позиций с проверкой границ")
+    void valuesRange_boundsAndReadOnly() {
+        ValueHistory history = new ValueHistory();
+        for (int i = 1; i <= 5; i++) {
+            history.addOrGetPosition("v" + i);
+        }
+
+        assertEquals(List.of("v2", "v3"), history.values(1, 3));
+        assertEquals(List.of(), history.values(5, 5));
+        assertEquals(history.getValues(), history.values(0, history.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.values(-1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.values(0, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.values(3, 2));
+        assertThrows(UnsupportedOperationException.class, () -> history.values(0, 2).remove(0));
+
+        // значения только добавляются, поэтому подсписок остаётся верным
+        List<String> range = history.values(3, 5);
+        history.addOrGetPosition("v6");
+        assertEquals(List.of("v4", "v5"), range);
+    }
+}
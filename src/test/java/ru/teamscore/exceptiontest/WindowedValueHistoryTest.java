@@ -0,0 +1,102 @@
+package ru.teamscore.exceptiontest;
+
+import ru.teamscore.exception.ValueHistory;
+import ru.teamscore.exception.WindowedValueHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.teamscore.exceptiontest.ValueHistoryAssertions.*;
+
+class WindowedValueHistoryTest {
+
+    @Test
+    @DisplayName("Пока окно не заполнено, позиции и повторы совпадают с ValueHistory")
+    void withinWindow_matchesValueHistory() {
+        WindowedValueHistory windowed = new WindowedValueHistory(10_000);
+        ValueHistory reference = new ValueHistory();
+        Random random = new Random(24);
+        for (int i = 0; i < 20_000; i++) {
+            String value = (i % 3 == 0 ? " " : "") + "value-" + random.nextInt(9_000);
+            assertEquals(reference.addOrGetPosition(value), windowed.addOrGetPosition(value), value);
+        }
+        assertEquals(reference.getValues(), windowed.getValues());
+        assertEquals(reference.size(), windowed.size());
+    }
+
+    @Test
+    @DisplayName("Вытесненное по количеству значение снова принимается с новой позицией")
+    void countEviction() throws Exception {
+        WindowedValueHistory history = new WindowedValueHistory(3);
+        history.add("a");
+        history.add("b");
+        history.add("c");
+        assertEquals(-1, history.addOrGetPosition("a"));
+
+        assertEquals(4, history.addOrGetPosition("d"));
+        assertEquals(List.of("b", "c", "d"), history.getValues());
+        assertEquals(-1, history.getFirstPosition("a"));
+        assertEquals(5, history.addOrGetPosition("a"));
+        assertEquals(3, history.size());
+
+        assertAlreadyExists("d", 4, () -> history.add(" d "));
+    }
+
+    @Test
+    @DisplayName("Долгое вытеснение по кругу не переполняет таблицу")
+    void countEviction_manyRounds() {
+        WindowedValueHistory history = new WindowedValueHistory(100);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i + 1, history.addOrGetPosition("value-" + i));
+            if (i >= 99) {
+                assertEquals(i - 98, history.getFirstPosition("value-" + (i - 99)));
+            }
+        }
+        assertEquals(100, history.size());
+        assertEquals(-1, history.getFirstPosition("value-99899"));
+    }
+
+    @Test
+    @DisplayName("Значение старше срока вытесняется, повтор не продлевает срок")
+    void timeEviction_injectedClock() {
+        AtomicLong now = new AtomicLong(Long.MAX_VALUE - 5_000_000_000L);  // nanoTime может переполниться
+        WindowedValueHistory history = new WindowedValueHistory(100, Duration.ofSeconds(10), now::get);
+
+        assertEquals(1, history.addOrGetPosition("a"));
+        now.addAndGet(4_000_000_000L);
+        assertEquals(2, history.addOrGetPosition("b"));
+        now.addAndGet(5_000_000_000L);
+        assertEquals(-1, history.addOrGetPosition("a"));
+        assertEquals(2, history.size());
+
+        now.addAndGet(1_000_000_000L);
+        assertEquals(-1, history.getFirstPosition("a"));
+        assertEquals(List.of("b"), history.getValues());
+        assertEquals(3, history.addOrGetPosition("a"));
+
+        now.addAndGet(20_000_000_000L);
+        assertEquals(0, history.size());
+        assertEquals(4, history.addOrGetPosition("b"));
+    }
+
+    @Test
+    @DisplayName("Некорректные параметры")
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WindowedValueHistory(0));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedValueHistory((1 << 28) + 1));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedValueHistory(10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedValueHistory(10, Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedValueHistory(10, Duration.ofSeconds(1), null));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedValueHistory(10).addOrGetPosition(null));
+
+        // срок, не помещающийся в long наносекунд, означает «без ограничения»
+        WindowedValueHistory history = new WindowedValueHistory(10, Duration.ofDays(365L * 1000), () -> 0);
+        assertEquals(1, history.addOrGetPosition("a"));
+        assertEquals(-1, history.addOrGetPosition("a"));
+    }
+}
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.DisplayName;
 
 import java.time.LocalDate;
 import java.time.DayOfWeek;
+import java.time.Year;
+import java.time.temporal.IsoFields;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -107,4 +109,58 @@ class FinderTest {
         assertEquals(LocalDate.of(2023, 12, 31), sunday);
         assertEquals(DayOfWeek.SUNDAY, sunday.getDayOfWeek());
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @DisplayName("Количество недель в году по ISO")
+    @CsvSource({
+            "2015, 53",
+            "2020, 53",
+            "2021, 52",
+            "2024, 52",
+            "2026, 53",
+            "1, 52",
+            "9999, 52"
+    })
+    void getWeeksInYear_variousYears_returnsCorrectCount(int year, int expectedWeeks) {
+        assertEquals(expectedWeeks, finder.getWeeksInYear(year));
+    }
+
+    @Test
+    @DisplayName("Понедельники из таблицы совпадают с IsoFields для всех лет 1–9999")
+    void getMonday_allTableYears_matchesIsoFields() {
+        for (int year = 1; year <= 9999; year++) {
+            LocalDate january4 = LocalDate.of(year, 1, 4);
+            int weeks = (int) january4.range(IsoFields.WEEK_OF_WEEK_BASED_YEAR).getMaximum();
+
+            assertEquals(weeks, finder.getWeeksInYear(year), "year " + year);
+            assertEquals(january4.with(DayOfWeek.MONDAY), finder.getMonday(year, 1), "year " + year);
+            assertEquals(january4.with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, weeks).with(DayOfWeek.MONDAY),
+                    finder.getMonday(year, weeks), "year " + year);
+        }
+    }
+
+    @Test
+    @DisplayName("Годы вне таблицы вычисляются без неё")
+    void getMonday_yearOutsideTable_returnsCorrectMonday() {
+        assertEquals(LocalDate.of(10000, 1, 3), finder.getMonday(10000, 1));
+        assertEquals(LocalDate.of(-1, 1, 4).with(DayOfWeek.MONDAY), finder.getMonday(-1, 1));
+    }
+
+    @Test
+    @DisplayName("Границы диапазона LocalDate: IllegalArgumentException вместо DateTimeException")
+    void yearRangeEdges() {
+        LocalDate lastJanuary4 = LocalDate.of(Year.MAX_VALUE, 1, 4);
+        assertEquals(lastJanuary4.range(IsoFields.WEEK_OF_WEEK_BASED_YEAR).getMaximum(),
+                finder.getWeeksInYear(Year.MAX_VALUE));
+        assertEquals(lastJanuary4.with(DayOfWeek.MONDAY), finder.getMonday(Year.MAX_VALUE, 1));
+
+        assertEquals(LocalDate.MIN, finder.getMonday(Year.MIN_VALUE, 1));
+
+        // последняя неделя самого позднего года заканчивается после LocalDate.MAX (пятницы)
+        int lastWeek = finder.getWeeksInYear(Year.MAX_VALUE);
+        assertEquals(LocalDate.MAX.with(DayOfWeek.MONDAY), finder.getMonday(Year.MAX_VALUE, lastWeek));
+        assertThrows(IllegalArgumentException.class, () -> finder.getSunday(Year.MAX_VALUE, lastWeek));
+        assertThrows(IllegalArgumentException.class, () -> finder.getWeeksInYear(Year.MAX_VALUE + 1));
+        assertThrows(IllegalArgumentException.class, () -> finder.getMonday(Integer.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.teamscore.passwordvalidatortest;
+
+import ru.teamscore.passwordvalidator.BreachedPasswordBlocklist;
+import ru.teamscore.passwordvalidator.PasswordPolicy;
+import ru.teamscore.passwordvalidator.PasswordValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachedPasswordBlocklistTest {
+    @TempDir
+    Path directory;
+
+    private BreachedPasswordBlocklist open(String... passwords) throws Exception {
+        MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+        HexFormat hex = HexFormat.of().withUpperCase();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < passwords.length; i++) {
+            lines.add(hex.formatHex(sha1.digest(passwords[i].getBytes(StandardCharsets.UTF_8))) + ":" + (i + 1));
+        }
+        lines.sort(null);
+        Path text = Files.write(directory.resolve("breached.txt"), lines);
+        Path hashes = directory.resolve("breached.sha1");
+        Path filter = directory.resolve("breached.bloom");
+        assertEquals(passwords.length, BreachedPasswordBlocklist.convertHexHashes(text, hashes));
+        BreachedPasswordBlocklist.buildFilter(hashes, filter, 0.01);
+        return BreachedPasswordBlocklist.open(hashes, filter);
+    }
+
+    @Test
+    @DisplayName("Breached passwords are found, others are not")
+    public void contains() throws Exception {
+        String[] breached = new String[10_000];
+        for (int i = 0; i < breached.length; i++) {
+            breached[i] = "Password" + i;
+        }
+        try (BreachedPasswordBlocklist blocklist = open(breached)) {
+            assertEquals(breached.length, blocklist.size());
+            for (String password : breached) {
+                assertTrue(blocklist.contains(password), password);
+            }
+            for (int i = breached.length; i < 2 * breached.length; i++) {
+                assertFalse(blocklist.contains("Password" + i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Passwords are hashed as UTF-8")
+    public void unicodePasswords() throws Exception {
+        try (BreachedPasswordBlocklist blocklist = open("Пароль123", "p😀ss")) {
+            assertTrue(blocklist.contains("Пароль123"));
+            assertTrue(blocklist.contains("p😀ss"));
+            assertTrue(blocklist.containsSha1(MessageDigest.getInstance("SHA-1")
+                    .digest("Пароль123".getBytes(StandardCharsets.UTF_8))));
+            assertFalse(blocklist.contains("пароль123"));
+        }
+    }
+
+    @Test
+    @DisplayName("Passwords in char[] and UTF-8 buffers are looked up without copying")
+    public void passwordWithoutString() throws Exception {
+        try (BreachedPasswordBlocklist blocklist = open("Qwerty123", "Пароль123")) {
+            assertTrue(blocklist.contains("Qwerty123".toCharArray()));
+            assertTrue(blocklist.contains(new StringBuilder("Пароль123")));
+            ByteBuffer buffer = ByteBuffer.wrap("Пароль123".getBytes(StandardCharsets.UTF_8));
+            assertTrue(blocklist.contains(buffer));
+            assertEquals(0, buffer.position());
+            assertFalse(blocklist.contains("Qwerty1234".toCharArray()));
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed UTF-8 is looked up as the U+FFFD characters validation sees")
+    public void malformedUtf8() throws Exception {
+        byte[] malformed = {'a', 'b', (byte) 0xFF, 'c', (byte) 0xE0, (byte) 0x80};
+        String decoded = new String(malformed, StandardCharsets.UTF_8);
+        try (BreachedPasswordBlocklist blocklist = open(decoded, "x\uD800y")) {
+            assertTrue(blocklist.contains(ByteBuffer.wrap(malformed)));
+            assertTrue(blocklist.contains(decoded.toCharArray()));
+            // непарный суррогат хешируется как '?', как в String.getBytes
+            assertTrue(blocklist.contains("x?y".toCharArray()));
+            assertTrue(blocklist.contains(new StringBuilder("x\uD800y")));
+            assertFalse(blocklist.contains(ByteBuffer.wrap(new byte[]{'a', 'b', 'c'})));
+        }
+    }
+
+    @Test
+    @DisplayName("Policy with blocklist reports breached passwords")
+    public void policyWithBlocklist() throws Exception {
+        try (BreachedPasswordBlocklist blocklist = open("Qwerty123", "Passw0rd")) {
+            PasswordPolicy policy = PasswordPolicy.builder().blocklist(blocklist).build();
+
+            PasswordValidator.ValidationResult result = policy.validate("Qwerty123", "User");
+            assertFalse(result.isValid());
+            assertTrue(result.has(PasswordValidator.BREACHED));
+            assertEquals(List.of("Password has appeared in a data breach"), result.getErrors());
+            assertTrue(policy.validate("Xk7pLm2q", "User").isValid());
+            assertTrue(PasswordValidator.validatePassword("Qwerty123", "User").isValid());
+        }
+    }
+
+    @Test
+    @DisplayName("Unsorted hash list is rejected")
+    public void unsortedHashes() throws Exception {
+        Path text = Files.write(directory.resolve("unsorted.txt"), List.of(
+                "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:1",
+                "0000000000000000000000000000000000000000:1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> BreachedPasswordBlocklist.convertHexHashes(text, directory.resolve("unsorted.sha1")));
+    }
+
+    @Test
+    @DisplayName("Filter built for another hash file is rejected")
+    public void mismatchedFilter() throws Exception {
+        open("Qwerty123").close();
+        Path other = Files.write(directory.resolve("other.sha1"), new byte[2 * BreachedPasswordBlocklist.HASH_BYTES]);
+        assertThrows(IllegalArgumentException.class,
+                () -> BreachedPasswordBlocklist.open(other, directory.resolve("breached.bloom")));
+    }
+}
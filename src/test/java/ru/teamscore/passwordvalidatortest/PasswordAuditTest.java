@@ -0,0 +1,102 @@
+package ru.teamscore.passwordvalidatortest;
+
+import ru.teamscore.passwordvalidator.PasswordAudit;
+import ru.teamscore.passwordvalidator.PasswordPolicy;
+import ru.teamscore.passwordvalidator.PasswordValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordAuditTest {
+    private static final int COUNT = 10_000;
+
+    private static String userName(int i) {
+        return "user" + i;
+    }
+
+    private static String password(int i) {
+        return switch (i % 5) {
+            case 0 -> "short" + i % 10;
+            case 1 -> userName(i);
+            case 2 -> "with space " + i + "X";
+            default -> "Strong" + i + "Pass";
+        };
+    }
+
+    @Test
+    @DisplayName("Parallel audit matches sequential checks")
+    public void auditStream() {
+        long[] expectedCounts = new long[Integer.SIZE];
+        List<Long> expectedFailing = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            int violations = PasswordValidator.checkPassword(password(i), userName(i));
+            if (violations != 0) {
+                expectedFailing.add((long) i);
+            }
+            for (int bit = 0; bit < Integer.SIZE; bit++) {
+                if ((violations & (1 << bit)) != 0) {
+                    expectedCounts[bit]++;
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PasswordAudit audit = new PasswordAudit(PasswordPolicy.DEFAULT, pool, 97);
+            PasswordAudit.Report report = audit.audit(
+                    IntStream.range(0, COUNT).mapToObj(i -> Map.entry(userName(i), password(i))));
+
+            assertEquals(COUNT, report.getTotal());
+            assertEquals(expectedFailing.size(), report.getInvalidCount());
+            assertEquals(COUNT - expectedFailing.size(), report.getValidCount());
+            assertArrayEquals(expectedFailing.stream().mapToLong(Long::longValue).toArray(),
+                    report.getFailingIndexes());
+            for (int bit = 0; bit < 9; bit++) {
+                assertEquals(expectedCounts[bit], report.getCount(1 << bit), "violation " + (1 << bit));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Audit of a file with user names and passwords")
+    public void auditFile(@TempDir Path directory) throws Exception {
+        Path file = Files.write(directory.resolve("credentials.tsv"), List.of(
+                "alice\tAlice2024pass",
+                "bob\tbob",
+                "carol\tPass\tWith\tTabs1",
+                "TestUser\tTestUser1X"));
+
+        PasswordAudit.Report report = new PasswordAudit(PasswordPolicy.DEFAULT).auditFile(file, '\t');
+
+        assertEquals(4, report.getTotal());
+        assertArrayEquals(new long[]{1, 2}, report.getFailingIndexes());
+        assertEquals(1, report.getCount(PasswordValidator.TOO_SHORT));
+        assertEquals(1, report.getCount(PasswordValidator.HAS_SPACES_OR_QUOTES));
+    }
+
+    @Test
+    @DisplayName("Malformed input and arguments are rejected")
+    public void invalidInput(@TempDir Path directory) throws Exception {
+        Path file = Files.write(directory.resolve("broken.tsv"), List.of("alice\tAlice2024pass", "no separator"));
+        PasswordAudit audit = new PasswordAudit(PasswordPolicy.DEFAULT);
+
+        assertThrows(IllegalArgumentException.class, () -> audit.auditFile(file, '\t'));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordAudit(PasswordPolicy.DEFAULT, ForkJoinPool.commonPool(), 0));
+        PasswordAudit.Report report = audit.audit(IntStream.range(0, 0).mapToObj(i -> Map.entry("", "")));
+        assertEquals(0, report.getTotal());
+        assertThrows(IllegalArgumentException.class,
+                () -> report.getCount(PasswordValidator.TOO_SHORT | PasswordValidator.NO_DIGIT));
+    }
+}
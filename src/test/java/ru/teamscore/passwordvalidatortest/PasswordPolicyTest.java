@@ -0,0 +1,198 @@
+package ru.teamscore.passwordvalidatortest;
+
+import ru.teamscore.passwordvalidator.PasswordPolicy;
+import ru.teamscore.passwordvalidator.PasswordValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordPolicyTest {
+
+    @ParameterizedTest
+    @DisplayName("Default policy matches PasswordValidator")
+    @ValueSource(strings =
+            {"Test6789", "abcdefg", "_ _ _ ", "", "QWERTYU2", "qwerty 1234", "\"34jdfgER", "TestUser", "Pass'word1"})
+    public void defaultPolicyMatchesValidator(String password) {
+        assertEquals(PasswordValidator.checkPassword(password, "TestUser"),
+                PasswordPolicy.DEFAULT.check(password, "TestUser"));
+        assertSame(PasswordValidator.validatePassword(password, "TestUser"),
+                PasswordPolicy.DEFAULT.validate(password, "TestUser"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("char[], CharSequence and UTF-8 bytes are checked like String")
+    @ValueSource(strings = {"Test6789", "abcdefg", "_ _ _ ", "", "TestUser", "Пароль123Abc", "Pass😀word1", "Aaa\"bcd9"})
+    public void passwordWithoutString(String password) {
+        PasswordPolicy policy = PasswordPolicy.builder().maxRepeats(2).build();
+        int expected = policy.check(password, "TestUser");
+
+        assertEquals(expected, policy.check(password.toCharArray(), "TestUser"));
+        assertEquals(expected, policy.check(new StringBuilder(password), "TestUser"));
+        assertEquals(expected, policy.check(CharBuffer.wrap(password), new StringBuilder("TestUser")));
+
+        byte[] bytes = password.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2).put((byte) 'x').put(bytes).put((byte) 'y');
+        buffer.position(1).limit(1 + bytes.length);
+        assertEquals(expected, policy.check(buffer, "TestUser"));
+        assertEquals(1, buffer.position());
+        assertSame(policy.validate(password, "TestUser"), policy.validate(buffer, "TestUser"));
+    }
+
+    @Test
+    @DisplayName("Malformed UTF-8 is decoded like new String(bytes, UTF_8)")
+    public void malformedUtf8() {
+        PasswordPolicy policy = PasswordPolicy.builder().minLength(0).maxRepeats(1).build();
+        for (String hex : new String[]{"82", "c331", "eda9a031", "e08080", "f4908080", "f09f98", "ff41c0"}) {
+            byte[] bytes = HexFormat.of().parseHex(hex);
+            String decoded = new String(bytes, StandardCharsets.UTF_8);
+            assertEquals(policy.check(decoded, decoded), policy.check(ByteBuffer.wrap(bytes), decoded), hex);
+        }
+    }
+
+    @Test
+    @DisplayName("Password array can be wiped after the check")
+    public void wipeAfterCheck() {
+        char[] password = "Secret123".toCharArray();
+        assertTrue(PasswordPolicy.DEFAULT.validate(password, "User").isValid());
+        Arrays.fill(password, '\0');
+        assertFalse(PasswordPolicy.DEFAULT.validate(password, "User").isValid());
+        assertTrue(PasswordValidator.validatePassword(new StringBuilder("Secret123"), "User").isValid());
+    }
+
+    @Test
+    @DisplayName("Minimum length is configurable")
+    public void minLength() {
+        PasswordPolicy policy = PasswordPolicy.builder().minLength(12).build();
+
+        PasswordValidator.ValidationResult result =
+                PasswordValidator.validatePassword("Short1Pass", "User", policy);
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Password must be at least 12 characters long"), result.getErrors());
+        assertTrue(policy.validate("LongEnough1Pass", "User").isValid());
+    }
+
+    @Test
+    @DisplayName("Required classes can be switched off and special characters required")
+    public void requiredClasses() {
+        PasswordPolicy policy = PasswordPolicy.builder()
+                .requireUppercase(false)
+                .requireSpecial(true)
+                .build();
+
+        assertEquals(PasswordValidator.NO_SPECIAL, policy.check("lowercase1", "User"));
+        assertEquals(0, policy.check("lower_case1", "User"));
+        assertTrue(policy.validate("lowercase1", "User").getErrors()
+                .contains("Password must contain at least one special character"));
+    }
+
+    @Test
+    @DisplayName("Additional forbidden characters")
+    public void forbiddenCharacters() {
+        PasswordPolicy policy = PasswordPolicy.builder().forbidCharacters("<>").build();
+
+        assertEquals(PasswordValidator.HAS_SPACES_OR_QUOTES, policy.check("Valid<Pass1", "User"));
+        assertEquals(PasswordValidator.HAS_SPACES_OR_QUOTES, policy.check("Valid Pass1", "User"));
+        assertEquals(0, policy.check("ValidPass1", "User"));
+    }
+
+    @Test
+    @DisplayName("Spaces can be allowed")
+    public void spacesAllowed() {
+        PasswordPolicy policy = PasswordPolicy.builder().forbidSpacesAndQuotes(false).build();
+        assertEquals(0, policy.check("Valid Pass 1", "User"));
+    }
+
+    @Test
+    @DisplayName("Maximum identical characters in a row")
+    public void maxRepeats() {
+        PasswordPolicy policy = PasswordPolicy.builder().maxRepeats(2).build();
+
+        assertEquals(0, policy.check("Vaal1dPass", "User"));
+        assertEquals(PasswordValidator.TOO_MANY_REPEATS, policy.check("Vaaal1dPass", "User"));
+        assertEquals(List.of("Password must not contain more than 2 identical characters in a row"),
+                policy.validate("Vaaal1dPass", "User").getErrors());
+    }
+
+    @Test
+    @DisplayName("Username check can be switched off")
+    public void usernameAllowed() {
+        PasswordPolicy policy = PasswordPolicy.builder().rejectUsername(false).build();
+        assertEquals(0, policy.check("TestUser1", "TestUser1"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Passwords similar to the username are rejected when enabled")
+    @ValueSource(strings = {"TestUser1", "xxtestuserXX9", "TestUsr1", "TestUzer1", "_TestUser74"})
+    public void similarToUsername(String password) {
+        PasswordPolicy policy = PasswordPolicy.builder().rejectSimilarToUsername(2).build();
+
+        assertEquals(PasswordValidator.SIMILAR_TO_USERNAME, policy.check(password, "TestUser"));
+        assertEquals(PasswordValidator.SIMILAR_TO_USERNAME, policy.check(password.toCharArray(), "TestUser"));
+        assertEquals(PasswordValidator.SIMILAR_TO_USERNAME,
+                policy.check(ByteBuffer.wrap(password.getBytes(StandardCharsets.UTF_8)), "TestUser"));
+        assertTrue(PasswordPolicy.DEFAULT.validate(password, "TestUser").isValid());
+    }
+
+    @Test
+    @DisplayName("Distance threshold and short user names")
+    public void similarityThreshold() {
+        PasswordPolicy policy = PasswordPolicy.builder().rejectSimilarToUsername(1).build();
+
+        assertEquals(0, policy.check("TestUsr9A", "TestUser"));
+        assertEquals(PasswordValidator.SIMILAR_TO_USERNAME, policy.check("TestUsr1", "TestUser1"));
+        assertEquals(0, policy.check("Bobcat2024", "bo"));
+        assertEquals(0, policy.check("Complete1Different", ""));
+        assertEquals(List.of("Password must not be similar to the username"),
+                policy.validate("TestUsr1", "TestUser1").getErrors());
+        assertThrows(IllegalArgumentException.class, () -> PasswordPolicy.builder().rejectSimilarToUsername(-1));
+    }
+
+    @Test
+    @DisplayName("Thresholds above the name length behave alike and do not overflow")
+    public void hugeSimilarityThreshold() {
+        PasswordPolicy large = PasswordPolicy.builder().rejectSimilarToUsername(100).build();
+        PasswordPolicy maximal = PasswordPolicy.builder().rejectSimilarToUsername(Integer.MAX_VALUE).build();
+
+        for (String password : new String[]{"Zx9#Qq", "Complete1Different", "TestUser1"}) {
+            assertEquals(large.check(password, "TestUser"), maximal.check(password, "TestUser"), password);
+            assertEquals(large.check(password, "TestUser"), maximal.check(password.toCharArray(), "TestUser"), password);
+        }
+        assertEquals(0, maximal.check("Complete1Different", "") & PasswordValidator.SIMILAR_TO_USERNAME);
+    }
+
+    @Test
+    @DisplayName("Policy is loaded from properties")
+    public void fromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("password.minLength", "10");
+        properties.setProperty("password.requireSpecial", "true");
+        properties.setProperty("password.maxRepeats", "3");
+
+        PasswordPolicy policy = PasswordPolicy.fromProperties(properties);
+
+        assertEquals(10, policy.getMinLength());
+        assertEquals(3, policy.getMaxRepeats());
+        assertEquals(PasswordValidator.TOO_SHORT | PasswordValidator.NO_SPECIAL, policy.check("Pass1word", "User"));
+    }
+
+    @Test
+    @DisplayName("Invalid configuration is rejected")
+    public void invalidConfiguration() {
+        Properties properties = new Properties();
+        properties.setProperty("password.minLength", "ten");
+        assertThrows(IllegalArgumentException.class, () -> PasswordPolicy.fromProperties(properties));
+        assertThrows(IllegalArgumentException.class, () -> PasswordPolicy.builder().maxRepeats(-1));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.teamscore.passwordvalidatortest;
+
+import ru.teamscore.passwordvalidator.PasswordPolicy;
+import ru.teamscore.passwordvalidator.PasswordStrength;
+import ru.teamscore.passwordvalidator.PasswordValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordStrengthTest {
+    private final PasswordStrength strength = PasswordStrength.getDefault();
+
+    @ParameterizedTest
+    @DisplayName("Dictionary words, l33t substitutions and keyboard walks are weak")
+    @ValueSource(strings = {"password", "Password1", "p@ssw0rd", "P@SSW0RD", "qwerty", "zxcvbnm", "abcdefgh",
+            "9876543210", "iloveyou", "monkeymonkey"})
+    public void weakPasswords(String password) {
+        assertEquals(0, strength.score(password));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Random passwords are strong")
+    @ValueSource(strings = {"xK9#mQ2$vL7!", "Tr0ub4dor&3", "correcthorsebatterystaple"})
+    public void strongPasswords(String password) {
+        assertEquals(4, strength.score(password));
+    }
+
+    @Test
+    @DisplayName("Score grows with the number of guesses")
+    public void guessesOrder() {
+        assertEquals(0, strength.guessesLog10(""));
+        assertTrue(strength.guessesLog10("password") < strength.guessesLog10("Password"));
+        assertTrue(strength.guessesLog10("Password") < strength.guessesLog10("PaSsWoRd"));
+        assertTrue(strength.guessesLog10("qwertyuiop") < strength.guessesLog10("qpwoeiruty"));
+        assertEquals(strength.guessesLog10("dragon"), strength.guessesLog10(new StringBuilder("dragon")));
+    }
+
+    @Test
+    @DisplayName("Result carries validation and score")
+    public void result() {
+        PasswordStrength.Result result = PasswordValidator.evaluatePassword("Password1", "TestUser");
+
+        assertTrue(result.isValid());
+        assertEquals(0, result.getScore());
+        assertEquals("Password is valid. Strength: 0/4", result.toString());
+
+        PasswordStrength.Result invalid = strength.evaluate("qwerty", "TestUser", PasswordPolicy.DEFAULT);
+        assertFalse(invalid.isValid());
+        assertEquals(PasswordValidator.validatePassword("qwerty", "TestUser").getErrors(), invalid.getErrors());
+        assertEquals(PasswordValidator.validatePassword("qwerty", "TestUser").getViolations(), invalid.getViolations());
+
+        assertFalse(strength.evaluate(null, "TestUser").isValid());
+    }
+
+    @Test
+    @DisplayName("Custom word list")
+    public void customWords() {
+        PasswordStrength custom = PasswordStrength.fromWords(List.of("teamscore", "vatcalc"));
+
+        assertEquals(0, custom.score("Teamscore"));
+        assertEquals(0, custom.score("t3amsc0re"));
+        assertTrue(custom.score("password") > strength.score("password"));
+    }
+}
@@ -169,4 +169,44 @@ class PasswordValidatorTest {
                     "Results should match for password: " + password);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Valid passwords share one result")
+    public void testValidResultIsShared() {
+        assertSame(PasswordValidator.ValidationResult.VALID,
+                PasswordValidator.validatePassword("ValidPass1", "User"));
+        assertSame(PasswordValidator.validatePassword("short", "User"),
+                PasswordValidator.validatePassword("tiny", "User"));
+    }
+
+    @Test
+    @DisplayName("Violations bitmask matches error messages")
+    public void testViolationsBitmask() {
+        PasswordValidator.ValidationResult result =
+                PasswordValidator.validatePassword("user ", "user ");
+
+        int expected = PasswordValidator.TOO_SHORT | PasswordValidator.NO_DIGIT
+                | PasswordValidator.NO_UPPERCASE | PasswordValidator.MATCHES_USERNAME
+                | PasswordValidator.HAS_SPACES_OR_QUOTES;
+        assertEquals(expected, result.getViolations());
+        assertEquals(expected, PasswordValidator.checkPassword("user ", "user "));
+        assertTrue(result.has(PasswordValidator.MATCHES_USERNAME));
+        assertFalse(result.has(PasswordValidator.NO_LOWERCASE));
+        assertEquals(List.of(
+                "Password must be at least 8 characters long",
+                "Password must contain at least one digit",
+                "Password must contain at least one uppercase letter",
+                "Password must not match the username",
+                "Password must not contain spaces, tabs, or quotes"), result.getErrors());
+    }
+
+    @Test
+    @DisplayName("Result built from messages exposes bitmask")
+    public void testResultFromMessages() {
+        PasswordValidator.ValidationResult result = new PasswordValidator.ValidationResult(false,
+                List.of("Password must contain at least one digit", "Custom error"));
+
+        assertEquals(PasswordValidator.NO_DIGIT, result.getViolations());
+        assertEquals(List.of("Password must contain at least one digit", "Custom error"), result.getErrors());
+    }
+}
@@ -0,0 +1,122 @@
+package ru.teamscore.vattest;
+import org.junit.jupiter.api.Test;
+import ru.teamscore.vat.InvoiceVat;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatRate;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvoiceVatTest {
+
+    /**
+     * Эталонное распределение наибольшими остатками через сортировку.
+     */
+    private static long[] expectedShares(long totalVAT, long[] weights) {
+        long total = Arrays.stream(weights).sum();
+        long[] shares = new long[weights.length];
+        long[] remainders = new long[weights.length];
+        long distributed = 0;
+        for (int i = 0; i < weights.length; i++) {
+            BigInteger[] division = BigInteger.valueOf(totalVAT).multiply(BigInteger.valueOf(weights[i]))
+                    .divideAndRemainder(BigInteger.valueOf(total));
+            shares[i] = division[0].longValue();
+            remainders[i] = division[1].longValue();
+            distributed += shares[i];
+        }
+        Integer[] order = IntStream.range(0, weights.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> -remainders[i]).thenComparingInt(i -> i));
+        for (int i = 0; i < totalVAT - distributed; i++) {
+            shares[order[i]]++;
+        }
+        return shares;
+    }
+
+    @Test
+    void fromFullPrices_lineVATSumsToInvoiceVAT() {
+        long[] kopecks = {9990, 9990, 9990, 19900, 1};
+
+        InvoiceVat invoice = InvoiceVat.fromFullPrices(kopecks);
+
+        long total = Arrays.stream(kopecks).sum();
+        assertEquals(total, invoice.getTotalFullPriceWithVAT());
+        assertEquals(VAT.computeFromFullKopecks(total), invoice.getTotalVAT());
+        long lineVAT = 0;
+        for (int i = 0; i < invoice.size(); i++) {
+            lineVAT += invoice.getVATInReceipt(i);
+            assertEquals(kopecks[i], invoice.getPriceWithoutVAT(i) + invoice.getVATInReceipt(i));
+        }
+        assertEquals(invoice.getTotalVAT(), lineVAT);
+        assertEquals(invoice.getTotalFullPriceWithVAT() - invoice.getTotalVAT(), invoice.getTotalPriceWithoutVAT());
+    }
+
+    @Test
+    void fromFullPrices_matchesReferenceDistribution() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            long[] kopecks = new long[1 + random.nextInt(500)];
+            for (int i = 0; i < kopecks.length; i++) {
+                kopecks[i] = random.nextInt(10) == 0 ? 9990 : random.nextInt(1_000_000);
+            }
+            InvoiceVat invoice = InvoiceVat.fromFullPrices(kopecks, VatRate.REDUCED);
+
+            long[] expected = expectedShares(invoice.getTotalVAT(), kopecks);
+            for (int i = 0; i < kopecks.length; i++) {
+                assertEquals(expected[i], invoice.getVATInReceipt(i), "Строка " + i);
+            }
+        }
+    }
+
+    @Test
+    void fromPricesWithoutVAT_equalLines_tiesGoToFirstLines() {
+        // 3 строки по 0.05: НДС итога 0.03, по строкам 0.01 с остатками — без расхождения
+        InvoiceVat invoice = InvoiceVat.fromPricesWithoutVAT(new long[]{5, 5, 5});
+        assertEquals(3, invoice.getTotalVAT());
+        assertEquals(1, invoice.getVATInReceipt(0));
+        assertEquals(1, invoice.getVATInReceipt(1));
+        assertEquals(1, invoice.getVATInReceipt(2));
+
+        // 3 строки по 0.03: НДС итога round(0.018) = 0.02 достаётся первым строкам
+        InvoiceVat small = InvoiceVat.fromPricesWithoutVAT(new long[]{3, 3, 3});
+        assertEquals(2, small.getTotalVAT());
+        assertArrayEquals(new long[]{1, 1, 0},
+                new long[]{small.getVATInReceipt(0), small.getVATInReceipt(1), small.getVATInReceipt(2)});
+        assertEquals(4, small.getFullPriceWithVAT(0));
+        assertEquals(11, small.getTotalFullPriceWithVAT());
+    }
+
+    @Test
+    void hugeAmounts_noOverflow() {
+        long[] kopecks = {Long.MAX_VALUE / 4, Long.MAX_VALUE / 4 + 1, 7};
+
+        InvoiceVat invoice = InvoiceVat.fromFullPrices(kopecks);
+
+        assertArrayEquals(expectedShares(invoice.getTotalVAT(), kopecks),
+                new long[]{invoice.getVATInReceipt(0), invoice.getVATInReceipt(1), invoice.getVATInReceipt(2)});
+    }
+
+    @Test
+    void declaration_roundsInvoiceVAT() {
+        InvoiceVat invoice = InvoiceVat.fromFullPrices(new long[]{6150, 6150});
+        assertEquals(2050, invoice.getTotalVAT());
+        assertEquals(21, invoice.getVATForDeclaration());
+    }
+
+    @Test
+    void emptyAndZeroInvoices() {
+        assertEquals(0, InvoiceVat.fromFullPrices(new long[0]).getTotalVAT());
+        InvoiceVat zero = InvoiceVat.fromFullPrices(new long[]{0, 0});
+        assertEquals(0, zero.getVATInReceipt(0));
+        assertEquals(0, zero.getVATInReceipt(1));
+    }
+
+    @Test
+    void negativeAmount_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> InvoiceVat.fromFullPrices(new long[]{100, -1}));
+    }
+}
@@ -292,4 +292,60 @@ class VATTest {
                 .setScale(2, java.math.RoundingMode.HALF_UP);
         assertEquals(0, calculatedVAT.compareTo(vat.getVATInReceipt()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void kopecks_matchBigDecimalCalculations() {
+        for (long kopecks = 0; kopecks < 100_000; kopecks++) {
+            BigDecimal amount = BigDecimal.valueOf(kopecks, 2);
+            assertEquals(VAT.fromFullPrice(amount), VAT.fromFullKopecks(kopecks),
+                    "Расхождение для полной суммы " + amount);
+            assertEquals(VAT.fromPriceWithoutVAT(amount), VAT.fromKopecksWithoutVAT(kopecks),
+                    "Расхождение для суммы без НДС " + amount);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // fullKopecks, expectedVATKopecks
+            "12000, 2000",
+            "11999, 2000",
+            "12245, 2041",
+            "3, 1",
+            "2, 0",
+            "99999999999, 16666666667"
+    })
+    void computeFromFullKopecks_calculationsCorrect(long fullKopecks, long expectedVAT) {
+        assertEquals(expectedVAT, VAT.computeFromFullKopecks(fullKopecks));
+    }
+
+    @Test
+    void computeFromFullKopecks_maxValue_noOverflow() {
+        long vat = VAT.computeFromFullKopecks(Long.MAX_VALUE);
+        BigDecimal expected = VAT.fromFullPrice(BigDecimal.valueOf(Long.MAX_VALUE, 2)).getVATInReceipt();
+        assertEquals(expected, BigDecimal.valueOf(vat, 2));
+    }
+
+    @Test
+    void fromKopecksWithoutVAT_fullPriceOverflow_throwsException() {
+        // НДС помещается в long, а сумма с ним — нет
+        assertThrows(ArithmeticException.class, () -> VAT.fromKopecksWithoutVAT(Long.MAX_VALUE));
+        assertThrows(ArithmeticException.class, () -> VAT.fromKopecksWithoutVAT(Long.MAX_VALUE / 6 * 5 + 5));
+    }
+
+    @Test
+    void computeFromKopecks_negativeAmount_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> VAT.computeFromFullKopecks(-1));
+        assertThrows(IllegalArgumentException.class, () -> VAT.computeFromKopecksWithoutVAT(-1));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0",
+            "2049, 20",
+            "2050, 21",
+            "123499, 1235"
+    })
+    void roundKopecksToRublesForDeclaration_roundingCorrect(long vatKopecks, long expectedRubles) {
+        assertEquals(expectedRubles, VAT.roundKopecksToRublesForDeclaration(vatKopecks));
+    }
+}
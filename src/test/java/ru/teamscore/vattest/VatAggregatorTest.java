@@ -0,0 +1,101 @@
+package ru.teamscore.vattest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatAggregator;
+import ru.teamscore.vat.VatTotals;
+
+import java.math.BigDecimal;
+import java.nio.LongBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VatAggregatorTest {
+
+    private static long[] sampleKopecks() {
+        long[] kopecks = new long[100_000];
+        for (int i = 0; i < kopecks.length; i++) {
+            kopecks[i] = (i * 7919L) % 1_000_000;
+        }
+        return kopecks;
+    }
+
+    @Test
+    void sumFullPrices_matchesSingleCalculation() {
+        long[] kopecks = sampleKopecks();
+        long full = 0, net = 0, vatInReceipt = 0, declaration = 0;
+        for (long k : kopecks) {
+            VAT vat = VAT.fromFullPrice(BigDecimal.valueOf(k, 2));
+            full += k;
+            net += vat.getPriceWithoutVAT().movePointRight(2).longValueExact();
+            vatInReceipt += vat.getVATInReceipt().movePointRight(2).longValueExact();
+            declaration += vat.getVATForDeclaration();
+        }
+
+        VatTotals totals = new VatAggregator().sumFullPrices(kopecks);
+
+        assertEquals(kopecks.length, totals.getCount());
+        assertEquals(full, totals.getFullPriceWithVAT());
+        assertEquals(net, totals.getPriceWithoutVAT());
+        assertEquals(vatInReceipt, totals.getVATInReceipt());
+        assertEquals(declaration, totals.getVATForDeclaration());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 8, 16})
+    void sumFullPrices_sameResultAtAnyParallelism(int parallelism) {
+        long[] kopecks = sampleKopecks();
+        VatTotals expected = new VatAggregator(ForkJoinPool.commonPool(), Integer.MAX_VALUE).sumFullPrices(kopecks);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            assertEquals(expected, new VatAggregator(pool, 1000).sumFullPrices(kopecks));
+            assertEquals(new VatAggregator(ForkJoinPool.commonPool(), Integer.MAX_VALUE).sumPricesWithoutVAT(kopecks),
+                    new VatAggregator(pool, 1000).sumPricesWithoutVAT(kopecks));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void allSources_giveSameTotals() {
+        long[] kopecks = sampleKopecks();
+        VatAggregator aggregator = new VatAggregator();
+        VatTotals fromArray = aggregator.sumFullPrices(kopecks);
+
+        assertEquals(fromArray, aggregator.sumFullPrices(LongBuffer.wrap(kopecks)));
+        assertEquals(fromArray, VatAggregator.sumFullPrices(LongStream.of(kopecks).parallel()));
+        assertEquals(aggregator.sumPricesWithoutVAT(kopecks),
+                VatAggregator.sumPricesWithoutVAT(LongStream.of(kopecks).parallel()));
+    }
+
+    @Test
+    void sumFullPrices_bufferPositionIsRespected() {
+        LongBuffer buffer = LongBuffer.wrap(new long[]{999, 12000, 6000});
+        buffer.position(1);
+
+        VatTotals totals = new VatAggregator().sumFullPrices(buffer);
+
+        assertEquals(2, totals.getCount());
+        assertEquals(18000, totals.getFullPriceWithVAT());
+        assertEquals(3000, totals.getVATInReceipt());
+        assertEquals(30, totals.getVATForDeclaration());
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void negativeAmount_throwsException() {
+        long[] kopecks = sampleKopecks();
+        kopecks[kopecks.length / 2] = -1;
+        assertThrows(IllegalArgumentException.class, () -> new VatAggregator(ForkJoinPool.commonPool(), 100)
+                .sumFullPrices(kopecks));
+    }
+
+    @Test
+    void invalidChunkSize_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new VatAggregator(ForkJoinPool.commonPool(), 0));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.teamscore.vattest;
+import org.junit.jupiter.api.Test;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatBatch;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VatBatchTest {
+
+    private static long[] sampleKopecks() {
+        long[] kopecks = new long[10_000];
+        for (int i = 0; i < kopecks.length; i++) {
+            kopecks[i] = i * 37L + (i % 7);
+        }
+        return kopecks;
+    }
+
+    @Test
+    void fromFullPrices_matchesSingleCalculation() {
+        long[] kopecks = sampleKopecks();
+        VatBatch batch = VatBatch.fromFullPrices(kopecks);
+
+        long declaration = 0;
+        assertEquals(kopecks.length, batch.size());
+        for (int i = 0; i < kopecks.length; i++) {
+            VAT vat = VAT.fromFullPrice(BigDecimal.valueOf(kopecks[i], 2));
+            assertEquals(vat, batch.toVAT(i));
+            declaration += vat.getVATForDeclaration();
+        }
+        assertEquals(declaration, batch.getVATForDeclaration());
+    }
+
+    @Test
+    void fromPricesWithoutVAT_matchesSingleCalculation() {
+        long[] kopecks = sampleKopecks();
+        VatBatch batch = VatBatch.fromPricesWithoutVAT(kopecks);
+
+        long declaration = 0;
+        for (int i = 0; i < kopecks.length; i++) {
+            VAT vat = VAT.fromPriceWithoutVAT(BigDecimal.valueOf(kopecks[i], 2));
+            assertEquals(vat, batch.toVAT(i));
+            declaration += vat.getVATForDeclaration();
+        }
+        assertEquals(declaration, batch.getVATForDeclaration());
+    }
+
+    @Test
+    void largeAmountsBelowVectorBound_matchSingleCalculation() {
+        // суммы у верхней границы точного расчёта через double: весь массив идёт в SIMD-ядро
+        long[] kopecks = new long[64];
+        for (int i = 0; i < kopecks.length; i++) {
+            kopecks[i] = (1L << 50) - 64 + i;
+        }
+        assertBatchesMatchSingleCalculation(kopecks);
+    }
+
+    @Test
+    void largeAmountsAboveVectorBound_matchSingleCalculation() {
+        // суммы не меньше границы: массив считается скалярным путём
+        long[] kopecks = new long[64];
+        for (int i = 0; i < kopecks.length - 1; i++) {
+            kopecks[i] = (1L << 50) + i;
+        }
+        kopecks[63] = Long.MAX_VALUE / 2;
+        assertBatchesMatchSingleCalculation(kopecks);
+    }
+
+    private static void assertBatchesMatchSingleCalculation(long[] kopecks) {
+        VatBatch fromFull = VatBatch.fromFullPrices(kopecks);
+        VatBatch fromNet = VatBatch.fromPricesWithoutVAT(kopecks);
+        for (int i = 0; i < kopecks.length; i++) {
+            assertEquals(VAT.computeFromFullKopecks(kopecks[i]), fromFull.getVATInReceipt(i));
+            assertEquals(VAT.computeFromKopecksWithoutVAT(kopecks[i]), fromNet.getVATInReceipt(i));
+        }
+    }
+
+    @Test
+    void fromFullPrices_columnsAreConsistent() {
+        VatBatch batch = VatBatch.fromFullPrices(new long[]{12000, 12245, 1});
+
+        long[] full = new long[3];
+        long[] net = new long[3];
+        long[] vat = new long[3];
+        batch.copyFullPricesWithVAT(full, 0);
+        batch.copyPricesWithoutVAT(net, 0);
+        batch.copyVATInReceipt(vat, 0);
+
+        assertArrayEquals(new long[]{12000, 12245, 1}, full);
+        assertArrayEquals(new long[]{10000, 10204, 1}, net);
+        assertArrayEquals(new long[]{2000, 2041, 0}, vat);
+    }
+
+    @Test
+    void fromFullPrices_doesNotModifyInput() {
+        long[] kopecks = {12000, 6000};
+        VatBatch.fromFullPrices(kopecks);
+        assertArrayEquals(new long[]{12000, 6000}, kopecks);
+    }
+
+    @Test
+    void emptyBatch() {
+        VatBatch batch = VatBatch.fromFullPrices(new long[0]);
+        assertEquals(0, batch.size());
+        assertEquals(0, batch.getVATForDeclaration());
+    }
+
+    @Test
+    void negativeAmount_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> VatBatch.fromFullPrices(new long[]{100, -1, 200}));
+        assertThrows(IllegalArgumentException.class,
+                () -> VatBatch.fromPricesWithoutVAT(new long[]{-5}));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.teamscore.vattest;
+import org.junit.jupiter.api.Test;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatCache;
+import ru.teamscore.vat.VatRate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VatCacheTest {
+
+    @Test
+    void repeatedAmount_returnsSharedInstance() {
+        VatCache cache = new VatCache(64);
+
+        VAT first = cache.fromFullPrice(new BigDecimal("99.90"));
+        VAT second = cache.fromFullPrice(new BigDecimal("99.9"));
+
+        assertSame(first, second);
+        assertEquals(VAT.fromFullPrice(new BigDecimal("99.90")), first);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void keyIncludesDirectionAndRate() {
+        VatCache cache = new VatCache(64);
+
+        VAT fromFull = cache.fromFullKopecks(12000);
+        VAT fromNet = cache.fromKopecksWithoutVAT(12000);
+        VAT reduced = cache.fromFullKopecks(12000, VatRate.REDUCED);
+
+        assertEquals(VAT.fromFullKopecks(12000), fromFull);
+        assertEquals(VAT.fromKopecksWithoutVAT(12000), fromNet);
+        assertEquals(VAT.fromFullKopecks(12000, VatRate.REDUCED), reduced);
+        assertNotEquals(fromFull, fromNet);
+        assertNotEquals(fromFull, reduced);
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    void cachedResults_matchDirectCalculation() {
+        VatCache cache = new VatCache(16);
+        for (int round = 0; round < 3; round++) {
+            for (long kopecks = 0; kopecks < 1_000; kopecks++) {
+                assertEquals(VAT.fromFullKopecks(kopecks), cache.fromFullKopecks(kopecks));
+                assertEquals(VAT.fromPriceWithoutVAT(BigDecimal.valueOf(kopecks, 2)),
+                        cache.fromPriceWithoutVAT(BigDecimal.valueOf(kopecks, 2)));
+            }
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    void capacity_isBounded() {
+        VatCache cache = new VatCache(10);
+        assertEquals(16, cache.getCapacity());
+    }
+
+    @Test
+    void hotAmount_survivesEviction() {
+        VatCache cache = new VatCache(4);
+        VAT hot = cache.fromFullKopecks(9990);
+        for (long kopecks = 1; kopecks <= 3; kopecks++) {
+            cache.fromFullKopecks(kopecks);
+        }
+        // все ячейки заняты, горячая запись отмечена и получает второй шанс
+        cache.fromFullKopecks(9990);
+        cache.fromFullKopecks(4);
+
+        assertSame(hot, cache.fromFullKopecks(9990));
+    }
+
+    @Test
+    void clear_removesEntries() {
+        VatCache cache = new VatCache(64);
+        VAT first = cache.fromFullKopecks(19900);
+        cache.clear();
+        assertNotSame(first, cache.fromFullKopecks(19900));
+    }
+
+    @Test
+    void negativeAmount_throwsException() {
+        VatCache cache = new VatCache(64);
+        assertThrows(IllegalArgumentException.class, () -> cache.fromFullPrice(new BigDecimal("-1.00")));
+        assertThrows(IllegalArgumentException.class, () -> cache.fromFullKopecks(-100));
+    }
+
+    @Test
+    void invalidCapacity_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new VatCache(0));
+    }
+}
@@ -0,0 +1,125 @@
+package ru.teamscore.vattest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatAggregator;
+import ru.teamscore.vat.VatFileProcessor;
+import ru.teamscore.vat.VatTotals;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VatFileProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    private Path writeBinary(long... kopecks) throws IOException {
+        Path file = directory.resolve("amounts.bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (long k : kopecks) {
+                out.writeLong(k);
+            }
+        }
+        return file;
+    }
+
+    private static long[][] readColumns(Path file) throws IOException {
+        int count = (int) (Files.size(file) / 24);
+        long[][] columns = new long[3][count];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (long[] column : columns) {
+                for (int i = 0; i < count; i++) {
+                    column[i] = in.readLong();
+                }
+            }
+        }
+        return columns;
+    }
+
+    @Test
+    void processFullPrices_writesColumnsAndTotals() throws IOException {
+        long[] kopecks = new long[5_000];
+        for (int i = 0; i < kopecks.length; i++) {
+            kopecks[i] = i * 101L;
+        }
+        Path output = directory.resolve("result.bin");
+
+        VatTotals totals = VatFileProcessor.processFullPrices(writeBinary(kopecks), output);
+
+        assertEquals(new VatAggregator().sumFullPrices(kopecks), totals);
+        long[][] columns = readColumns(output);
+        for (int i = 0; i < kopecks.length; i++) {
+            VAT vat = VAT.fromFullKopecks(kopecks[i]);
+            assertEquals(vat.getPriceWithoutVAT(), BigDecimal.valueOf(columns[0][i], 2));
+            assertEquals(vat.getVATInReceipt(), BigDecimal.valueOf(columns[1][i], 2));
+            assertEquals(vat.getFullPriceWithVAT(), BigDecimal.valueOf(columns[2][i], 2));
+        }
+    }
+
+    @Test
+    void processPricesWithoutVAT_writesColumnsAndTotals() throws IOException {
+        Path output = directory.resolve("result.bin");
+
+        VatTotals totals = VatFileProcessor.processPricesWithoutVAT(writeBinary(10000, 9999), output);
+
+        assertEquals(2, totals.getCount());
+        assertArrayEquals(new long[][]{{10000, 9999}, {2000, 2000}, {12000, 11999}}, readColumns(output));
+    }
+
+    @Test
+    void processFullPricesCsv_parsesColumnWithoutHeader() throws IOException {
+        Path input = directory.resolve("amounts.csv");
+        Files.writeString(input, "id;amount;comment\r\n1;120.00;a\r\n\r\n2; 122.45 ;b\n3;0.005;c\n4;60");
+        Path output = directory.resolve("result.bin");
+
+        VatTotals totals = VatFileProcessor.processFullPricesCsv(input, 1, ';', true, output);
+
+        assertEquals(new VatAggregator().sumFullPrices(new long[]{12000, 12245, 1, 6000}), totals);
+        assertArrayEquals(new long[]{12000, 12245, 1, 6000}, readColumns(output)[2]);
+    }
+
+    @Test
+    void processPricesWithoutVATCsv_singleColumn() throws IOException {
+        Path input = directory.resolve("amounts.csv");
+        Files.writeString(input, "100\n99.99\n");
+        Path output = directory.resolve("result.bin");
+
+        VatTotals totals = VatFileProcessor.processPricesWithoutVATCsv(input, 0, ',', false, output);
+
+        assertEquals(24000 - 1, totals.getFullPriceWithVAT());
+        assertEquals(4000, totals.getVATInReceipt());
+    }
+
+    @Test
+    void emptyFile_producesEmptyResult() throws IOException {
+        Path output = directory.resolve("result.bin");
+
+        VatTotals totals = VatFileProcessor.processFullPrices(writeBinary(), output);
+
+        assertEquals(0, totals.getCount());
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    void invalidInput_throwsException() throws IOException {
+        Path output = directory.resolve("result.bin");
+        Path truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, new byte[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> VatFileProcessor.processFullPrices(truncated, output));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> VatFileProcessor.processFullPrices(writeBinary(100, -1), output));
+
+        Path csv = directory.resolve("amounts.csv");
+        Files.writeString(csv, "1;12a.00\n");
+        assertThrows(IllegalArgumentException.class,
+                () -> VatFileProcessor.processFullPricesCsv(csv, 1, ';', false, output));
+        assertThrows(IllegalArgumentException.class,
+                () -> VatFileProcessor.processFullPricesCsv(csv, 2, ';', false, output));
+    }
+}
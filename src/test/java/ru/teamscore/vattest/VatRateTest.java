@@ -0,0 +1,110 @@
+package ru.teamscore.vattest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.teamscore.vat.VAT;
+import ru.teamscore.vat.VatBatch;
+import ru.teamscore.vat.VatRate;
+import ru.teamscore.vat.VatRateRegistry;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VatRateTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 7, 10, 18, 20, 22})
+    void kopecks_matchBigDecimalCalculations(int percent) {
+        VatRate rate = VatRate.of(percent);
+        for (long kopecks = 0; kopecks < 20_000; kopecks++) {
+            BigDecimal amount = BigDecimal.valueOf(kopecks, 2);
+            assertEquals(VAT.fromFullPrice(amount, rate), VAT.fromFullKopecks(kopecks, rate));
+            assertEquals(VAT.fromPriceWithoutVAT(amount, rate), VAT.fromKopecksWithoutVAT(kopecks, rate));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // percent, fullPriceWithVAT, expectedNet, expectedVAT
+            "20, 120.00, 100.00, 20.00",
+            "10, 110.00, 100.00, 10.00",
+            "10, 99.99, 90.90, 9.09",
+            "0, 99.99, 99.99, 0.00"
+    })
+    void fromFullPrice_withRate_calculationsCorrect(int percent, String fullPrice, String expectedNet,
+                                                    String expectedVAT) {
+        VAT vat = VAT.fromFullPrice(new BigDecimal(fullPrice), VatRate.of(percent));
+        assertEquals(new BigDecimal(expectedNet), vat.getPriceWithoutVAT());
+        assertEquals(new BigDecimal(expectedVAT), vat.getVATInReceipt());
+    }
+
+    @Test
+    void defaultRate_isStandard() {
+        assertSame(VatRate.STANDARD, VatRate.of(20));
+        assertEquals(VAT.fromFullPrice(new BigDecimal("122.45")),
+                VAT.fromFullPrice(new BigDecimal("122.45"), VatRate.STANDARD));
+    }
+
+    @Test
+    void of_invalidPercent_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> VatRate.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> VatRate.of(101));
+    }
+
+    @Test
+    void mixedRateBatch_matchesSingleCalculation() {
+        long[] kopecks = {11000, 12000, 9999, 12245};
+        VatRate[] rates = {VatRate.REDUCED, VatRate.STANDARD, VatRate.ZERO, VatRate.REDUCED};
+
+        VatBatch batch = VatBatch.fromFullPrices(kopecks, rates);
+
+        long declaration = 0;
+        for (int i = 0; i < kopecks.length; i++) {
+            VAT vat = VAT.fromFullKopecks(kopecks[i], rates[i]);
+            assertEquals(vat, batch.toVAT(i));
+            declaration += vat.getVATForDeclaration();
+        }
+        assertEquals(declaration, batch.getVATForDeclaration());
+    }
+
+    @Test
+    void mixedRateBatch_differentLengths_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> VatBatch.fromPricesWithoutVAT(new long[]{1, 2}, new VatRate[]{VatRate.ZERO}));
+    }
+
+    @Test
+    void registry_selectsRateByCodeAndDate() {
+        VatRateRegistry registry = VatRateRegistry.builder()
+                .add("STANDARD", LocalDate.of(2004, 1, 1), VatRate.of(18))
+                .add("STANDARD", LocalDate.of(2019, 1, 1), VatRate.STANDARD)
+                .add("REDUCED", LocalDate.of(2004, 1, 1), VatRate.REDUCED)
+                .build();
+
+        assertEquals(VatRate.of(18), registry.get("STANDARD", LocalDate.of(2018, 12, 31)));
+        assertSame(VatRate.STANDARD, registry.get("STANDARD", LocalDate.of(2019, 1, 1)));
+        assertSame(VatRate.STANDARD, registry.get("STANDARD", LocalDate.of(2024, 6, 1).toEpochDay()));
+        assertSame(VatRate.REDUCED, registry.get("REDUCED", LocalDate.of(2024, 6, 1)));
+    }
+
+    @Test
+    void registry_unknownCodeOrDate_throwsException() {
+        VatRateRegistry registry = VatRateRegistry.builder()
+                .add("STANDARD", LocalDate.of(2019, 1, 1), VatRate.STANDARD)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.get("REDUCED", LocalDate.of(2020, 1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> registry.get("STANDARD", LocalDate.of(2018, 1, 1)));
+    }
+
+    @Test
+    void registry_duplicateEntry_throwsException() {
+        VatRateRegistry.Builder builder = VatRateRegistry.builder()
+                .add("STANDARD", LocalDate.of(2019, 1, 1), VatRate.STANDARD);
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.add("STANDARD", LocalDate.of(2019, 1, 1), VatRate.REDUCED));
+    }
+}